@@ -0,0 +1,8 @@
+-- Migration Script: Indexes for admin order search
+-- Date: 2026-10-17
+-- Description: GET /api/admin/orders filters on status / order_time / user and sorts by (order_time, order_id) desc.
+-- Each index covers one filter plus the sort, so the keyset query never needs a filesort or a full scan.
+-- The (user_id, order_time, order_id) index already exists (migration_keyset_pagination.sql).
+
+CREATE INDEX IF NOT EXISTS idx_orders_status_time_id ON orders(order_status, order_time, order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_time_id ON orders(order_time, order_id);
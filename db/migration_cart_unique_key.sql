@@ -0,0 +1,19 @@
+-- Migration Script: Unique (user_id, product_id) on cart
+-- Date: 2026-10-17
+-- Description: POST /api/cart is now a single INSERT ... ON DUPLICATE KEY UPDATE, which needs one row per
+-- user + product. Existing duplicates (from concurrent double clicks) are merged first: the oldest row keeps
+-- the summed quantity and the others are deleted.
+
+UPDATE cart c
+JOIN (
+    SELECT user_id, product_id, MIN(cart_id) AS keep_id, SUM(quantity) AS total_quantity
+    FROM cart
+    GROUP BY user_id, product_id
+    HAVING COUNT(*) > 1
+) d ON c.cart_id = d.keep_id
+SET c.quantity = d.total_quantity;
+
+DELETE c FROM cart c
+JOIN cart k ON k.user_id = c.user_id AND k.product_id = c.product_id AND k.cart_id < c.cart_id;
+
+ALTER TABLE cart ADD UNIQUE KEY uk_cart_user_product (user_id, product_id);
@@ -0,0 +1,14 @@
+-- Migration Script: Journal for hot-product inventory
+-- Date: 2026-10-17
+-- Description: Insert-only journal of committed stock deltas for products served by the in-memory
+-- hot inventory engine. Flushed periodically into products.stock.
+-- Available stock of a product is always products.stock + SUM(inventory_journal.delta).
+
+CREATE TABLE IF NOT EXISTS inventory_journal (
+    journal_id BIGINT NOT NULL AUTO_INCREMENT,
+    product_id INT(11) NOT NULL,
+    delta INT(11) NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (journal_id),
+    KEY idx_inventory_journal_product (product_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
@@ -0,0 +1,16 @@
+-- Migration Script: Idempotency-Key for checkout
+-- Date: 2026-10-17
+-- Description: Records the order created by the first POST /api/orders for each (user, Idempotency-Key),
+-- so client retries return the same order instead of running checkout again.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    record_id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id INT(11) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    order_id INT(11) DEFAULT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (record_id),
+    UNIQUE KEY uk_idempotency_user_key (user_id, idempotency_key),
+    KEY idx_idempotency_created (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
@@ -0,0 +1,6 @@
+-- Migration Script: Indexes for keyset (cursor) pagination
+-- Date: 2026-10-17
+-- Description: Composite index so GET /api/orders?cursor= can seek on (order_time, order_id) per user
+-- without a filesort. Products and categories seek on their primary key, so no extra index is needed.
+
+CREATE INDEX IF NOT EXISTS idx_orders_user_time_id ON orders(user_id, order_time, order_id);
@@ -0,0 +1,10 @@
+-- Migration Script: Archive tier for orders
+-- Date: 2026-10-17
+-- Description: COMPLETED/CANCELLED orders older than order.archive.after-days are moved here by
+-- OrderArchiveService (enable with order.archive.enabled=true after running this script).
+-- Same columns and indexes as the hot tables (LIKE), without foreign keys.
+-- Requires MySQL 8.0+ or MariaDB 10.6+: the archive job selects chunks with FOR UPDATE SKIP LOCKED,
+-- which is a syntax error on MariaDB 10.4 (the version db/ogani_app.sql was dumped from).
+
+CREATE TABLE IF NOT EXISTS orders_archive LIKE orders;
+CREATE TABLE IF NOT EXISTS order_details_archive LIKE order_details;
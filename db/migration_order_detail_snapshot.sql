@@ -0,0 +1,20 @@
+-- Migration Script: Product snapshot on order_details
+-- Date: 2026-10-17
+-- Description: Checkout now copies product_name and product_image into order_details, so order history
+-- is read from orders + order_details only and survives product renames/deletes.
+
+ALTER TABLE order_details
+    ADD COLUMN IF NOT EXISTS product_name VARCHAR(100) NULL AFTER product_id,
+    ADD COLUMN IF NOT EXISTS product_image VARCHAR(255) NULL AFTER product_name;
+
+-- Backfill existing rows from the current catalog (best effort: older renames are already lost)
+UPDATE order_details d
+JOIN products p ON p.product_id = d.product_id
+SET d.product_name = p.product_name,
+    d.product_image = p.product_image
+WHERE d.product_name IS NULL;
+
+-- Products with order history can now be deleted: product_id becomes NULL, the snapshot stays
+ALTER TABLE order_details DROP FOREIGN KEY order_details_ibfk_2;
+ALTER TABLE order_details
+    ADD CONSTRAINT order_details_ibfk_2 FOREIGN KEY (product_id) REFERENCES products (product_id) ON DELETE SET NULL;
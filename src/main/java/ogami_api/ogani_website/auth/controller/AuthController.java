@@ -15,6 +15,8 @@ import ogami_api.ogani_website.auth.dto.RegisterRequest;
 import ogami_api.ogani_website.auth.dto.UserResponse;
 import ogami_api.ogani_website.auth.service.AuthService;
 import ogami_api.ogani_website.auth.util.JwtUtils;
+import ogami_api.ogani_website.cart.guest.GuestCartCodec;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -31,9 +33,11 @@ public class AuthController {
 
     private final AuthService authService;
     private final JwtUtils jwtUtils;
+    private final GuestCartCodec guestCartCodec;
 
     /**
      * POST /api/auth/login - User login.
+     * Guest cart (cookie guest_cart / header X-Guest-Cart) di-merge ke cart user, lalu cookie dihapus.
      */
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user with username/email and password")
@@ -41,14 +45,20 @@ public class AuthController {
         @ApiResponse(responseCode = "200", description = "Login successful, returns JWT token"),
         @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content)
     })
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<LoginResponse> login(
+            @Valid @RequestBody LoginRequest request,
+            @RequestHeader(value = GuestCartCodec.HEADER_NAME, required = false) String guestCartHeader,
+            @CookieValue(value = GuestCartCodec.COOKIE_NAME, required = false) String guestCartCookie) {
         log.info("POST /api/auth/login - User: {}", request.getUsernameOrEmail());
-        LoginResponse response = authService.login(request);
-        return ResponseEntity.ok(response);
+        LoginResponse response = authService.login(request, guestCartToken(guestCartHeader, guestCartCookie));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, guestCartCodec.toCookie(null).toString())
+                .body(response);
     }
 
     /**
      * POST /api/auth/register - Register user baru.
+     * Guest cart di-merge ke cart user baru, lalu cookie dihapus.
      */
     @PostMapping("/register")
     @Operation(summary = "Register new user", description = "Create new customer account with enhanced profile")
@@ -56,10 +66,15 @@ public class AuthController {
         @ApiResponse(responseCode = "201", description = "Registration successful"),
         @ApiResponse(responseCode = "400", description = "Invalid data or duplicate email/username", content = @Content)
     })
-    public ResponseEntity<UserResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<UserResponse> register(
+            @Valid @RequestBody RegisterRequest request,
+            @RequestHeader(value = GuestCartCodec.HEADER_NAME, required = false) String guestCartHeader,
+            @CookieValue(value = GuestCartCodec.COOKIE_NAME, required = false) String guestCartCookie) {
          log.info("POST /api/auth/register - User: {}", request.getUsername());
-        UserResponse response = authService.register(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        UserResponse response = authService.register(request, guestCartToken(guestCartHeader, guestCartCookie));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(HttpHeaders.SET_COOKIE, guestCartCodec.toCookie(null).toString())
+                .body(response);
     }
 
     /**
@@ -90,4 +105,10 @@ public class AuthController {
         
         return ResponseEntity.ok(response);
     }
+
+    // Helper methods
+
+    private static String guestCartToken(String header, String cookie) {
+        return header != null && !header.isBlank() ? header : cookie;
+    }
 }
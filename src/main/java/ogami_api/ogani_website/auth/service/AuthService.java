@@ -7,6 +7,7 @@ import ogami_api.ogani_website.auth.dto.LoginResponse;
 import ogami_api.ogani_website.auth.dto.RegisterRequest;
 import ogami_api.ogani_website.auth.dto.UserResponse;
 import ogami_api.ogani_website.auth.util.JwtUtils;
+import ogami_api.ogani_website.cart.guest.GuestCartService;
 import ogami_api.ogani_website.exception.DataNotFoundException;
 import ogami_api.ogani_website.exception.DuplicateDataException;
 import ogami_api.ogani_website.user.model.User;
@@ -31,11 +32,13 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final GuestCartService guestCartService;
 
     /**
      * User login dengan username  atau email.
+     * Guest cart (token, boleh null) di-merge ke cart user.
      */
-    public LoginResponse login(LoginRequest request) {
+    public LoginResponse login(LoginRequest request, String guestCartToken) {
         log.info("Login attempt for: {}", request.getUsernameOrEmail());
 
         // Find user by username or email
@@ -50,6 +53,13 @@ public class AuthService {
             throw new BadCredentialsException("Invalid password");
         }
 
+        // Merge guest cart; gagal merge tidak menggagalkan login
+        try {
+            guestCartService.mergeInto(user.getUserId(), guestCartToken);
+        } catch (RuntimeException e) {
+            log.warn("Guest cart merge failed for user {}", user.getUserId(), e);
+        }
+
         // Generate JWT token
         String token = jwtUtils.generateToken(user);
 
@@ -68,9 +78,10 @@ public class AuthService {
 
     /**
      * Register user baru dengan enhanced profile.
+     * Guest cart (token, boleh null) di-merge ke cart user baru dalam transaksi yang sama.
      */
     @Transactional
-    public UserResponse register(RegisterRequest request) {
+    public UserResponse register(RegisterRequest request, String guestCartToken) {
         log.info("Registration attempt for: {}", request.getUsername());
 
         // Check if username already exists
@@ -103,6 +114,7 @@ public class AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        guestCartService.mergeInto(savedUser.getUserId(), guestCartToken);
 
         log.info("User registered successfully: {}", savedUser.getUsername());
 
@@ -5,9 +5,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.cart.dto.BulkCartRequest;
+import ogami_api.ogani_website.cart.dto.BulkCartResponse;
 import ogami_api.ogani_website.cart.dto.CartItemResponse;
 import ogami_api.ogani_website.cart.dto.CartRequest;
 import ogami_api.ogani_website.cart.dto.CartResponse;
+import ogami_api.ogani_website.cart.dto.CartSummaryResponse;
 import ogami_api.ogani_website.cart.model.Cart;
 import ogami_api.ogani_website.cart.service.CartService;
 import org.springframework.http.HttpStatus;
@@ -16,7 +19,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -45,6 +50,15 @@ public class CartController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * GET /api/cart/summary - Jumlah item dan total untuk badge cart.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<CartSummaryResponse> getCartSummary(Authentication authentication) {
+        Integer userId = getUserIdFromAuth(authentication);
+        return ResponseEntity.ok(cartService.getCartSummary(userId));
+    }
+
     /**
      * POST /api/cart - Add product to cart.
      */
@@ -58,14 +72,32 @@ public class CartController {
         return ResponseEntity.status(HttpStatus.CREATED).body(toCartItemResponse(cart));
     }
 
+    /**
+     * POST /api/cart/batch - Add banyak product sekaligus (re-order, add recipe).
+     * Response berisi result per product (ADDED, NOT_FOUND, INSUFFICIENT_STOCK).
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BulkCartResponse> addToCartBatch(
+            @Valid @RequestBody BulkCartRequest request,
+            Authentication authentication) {
+        Integer userId = getUserIdFromAuth(authentication);
+
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        request.getItems().forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+        return ResponseEntity.ok(cartService.addToCartBatch(userId, quantities));
+    }
+
     /**
      * PUT /api/cart/{id} - Update cart item quantity.
      */
     @PutMapping("/{id}")
     public ResponseEntity<CartItemResponse> updateCartItem(
             @PathVariable Integer id,
-            @RequestParam Integer quantity) {
-        Cart cart = cartService.updateCartQuantity(id, quantity);
+            @RequestParam Integer quantity,
+            Authentication authentication) {
+        Integer userId = getUserIdFromAuth(authentication);
+
+        Cart cart = cartService.updateCartQuantity(userId, id, quantity);
         return ResponseEntity.ok(toCartItemResponse(cart));
     }
 
@@ -73,8 +105,9 @@ public class CartController {
      * DELETE /api/cart/{id} - Remove item from cart.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> removeFromCart(@PathVariable Integer id) {
-        cartService.removeFromCart(id);
+    public ResponseEntity<Void> removeFromCart(@PathVariable Integer id, Authentication authentication) {
+        Integer userId = getUserIdFromAuth(authentication);
+        cartService.removeFromCart(userId, id);
         return ResponseEntity.noContent().build();
     }
 
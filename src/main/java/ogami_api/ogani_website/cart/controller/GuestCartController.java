@@ -0,0 +1,97 @@
+package ogami_api.ogani_website.cart.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.cart.dto.CartRequest;
+import ogami_api.ogani_website.cart.dto.CartResponse;
+import ogami_api.ogani_website.cart.guest.GuestCartCodec;
+import ogami_api.ogani_website.cart.guest.GuestCartService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller untuk guest cart (tanpa login).
+ * Token cart dikirim lewat cookie guest_cart atau header X-Guest-Cart, dan token baru
+ * dikembalikan di keduanya setiap kali isi cart berubah.
+ */
+@RestController
+@RequestMapping("/api/cart/guest")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Guest Cart", description = "Stateless cart for anonymous visitors, merged on login/register")
+public class GuestCartController {
+
+    private final GuestCartService guestCartService;
+    private final GuestCartCodec guestCartCodec;
+
+    /**
+     * GET /api/cart/guest - Isi guest cart.
+     */
+    @GetMapping
+    public ResponseEntity<CartResponse> getCart(
+            @RequestHeader(value = GuestCartCodec.HEADER_NAME, required = false) String header,
+            @CookieValue(value = GuestCartCodec.COOKIE_NAME, required = false) String cookie) {
+        return ResponseEntity.ok(guestCartService.getCart(resolveToken(header, cookie)));
+    }
+
+    /**
+     * POST /api/cart/guest - Add product ke guest cart.
+     */
+    @PostMapping
+    public ResponseEntity<CartResponse> addToCart(
+            @Valid @RequestBody CartRequest request,
+            @RequestHeader(value = GuestCartCodec.HEADER_NAME, required = false) String header,
+            @CookieValue(value = GuestCartCodec.COOKIE_NAME, required = false) String cookie) {
+        return withToken(guestCartService.addItem(resolveToken(header, cookie),
+                request.getProductId(), request.getQuantity()));
+    }
+
+    /**
+     * PUT /api/cart/guest/{productId} - Update quantity.
+     */
+    @PutMapping("/{productId}")
+    public ResponseEntity<CartResponse> updateCartItem(
+            @PathVariable Integer productId,
+            @RequestParam Integer quantity,
+            @RequestHeader(value = GuestCartCodec.HEADER_NAME, required = false) String header,
+            @CookieValue(value = GuestCartCodec.COOKIE_NAME, required = false) String cookie) {
+        return withToken(guestCartService.updateItem(resolveToken(header, cookie), productId, quantity));
+    }
+
+    /**
+     * DELETE /api/cart/guest/{productId} - Remove product dari guest cart.
+     */
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<CartResponse> removeFromCart(
+            @PathVariable Integer productId,
+            @RequestHeader(value = GuestCartCodec.HEADER_NAME, required = false) String header,
+            @CookieValue(value = GuestCartCodec.COOKIE_NAME, required = false) String cookie) {
+        return withToken(guestCartService.removeItem(resolveToken(header, cookie), productId));
+    }
+
+    /**
+     * DELETE /api/cart/guest - Clear guest cart (hapus cookie).
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> clearCart() {
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, guestCartCodec.toCookie(null).toString())
+                .build();
+    }
+
+    // Helper methods
+
+    private static String resolveToken(String header, String cookie) {
+        return header != null && !header.isBlank() ? header : cookie;
+    }
+
+    private ResponseEntity<CartResponse> withToken(GuestCartService.Result result) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, guestCartCodec.toCookie(result.token()).toString())
+                .header(GuestCartCodec.HEADER_NAME, result.token())
+                .body(result.cart());
+    }
+}
@@ -0,0 +1,26 @@
+package ogami_api.ogani_website.cart.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO untuk add banyak product ke cart sekaligus (re-order, add recipe).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCartRequest {
+
+    @NotEmpty(message = "Items cannot be empty")
+    @Size(max = 100, message = "Cannot add more than 100 items at once")
+    @Valid
+    private List<CartRequest> items;
+}
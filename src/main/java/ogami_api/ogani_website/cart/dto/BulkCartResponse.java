@@ -0,0 +1,40 @@
+package ogami_api.ogani_website.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO untuk hasil batch add to cart, satu result per product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCartResponse {
+
+    private Integer added;
+    private List<Result> results;
+
+    public enum Outcome {
+        ADDED,
+        NOT_FOUND,
+        INSUFFICIENT_STOCK
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+
+        private Integer productId;
+        private Integer quantity;       // quantity yang diminta (line dengan product sama dijumlah)
+        private Outcome outcome;
+        private Integer cartQuantity;   // quantity di cart setelah batch (null kalau NOT_FOUND)
+        private Integer available;      // stok tersedia (null kalau NOT_FOUND)
+    }
+}
@@ -0,0 +1,22 @@
+package ogami_api.ogani_website.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO untuk badge cart: jumlah item, total harga, dan version (berubah setiap isi cart berubah).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartSummaryResponse {
+
+    private Integer itemCount;
+    private BigDecimal totalPrice;
+    private Long version;
+}
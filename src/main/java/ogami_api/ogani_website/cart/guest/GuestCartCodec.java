@@ -0,0 +1,177 @@
+package ogami_api.ogani_website.cart.guest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encode/decode token guest cart. Isi cart dibawa client, server tidak menyimpan apa-apa.
+ * Format biner (base64url tanpa padding):
+ * version (1 byte) + issuedAt epoch detik (4 byte) + jumlah line (1 byte)
+ * + per line productId dan quantity (varint) + HMAC-SHA256 dipotong 16 byte.
+ * Verifikasi hanya butuh secret, tanpa akses database.
+ * Key HMAC: cart.guest.secret kalau diisi; kalau tidak, diturunkan dari jwt.secret dengan label
+ * tersendiri (HMAC(jwt.secret, KEY_LABEL)), jadi key JWT tidak pernah dipakai langsung untuk token cart.
+ */
+@Component
+@Slf4j
+public class GuestCartCodec {
+
+    public static final String COOKIE_NAME = "guest_cart";
+    public static final String HEADER_NAME = "X-Guest-Cart";
+    public static final int MAX_LINES = 50;
+    public static final int MAX_QUANTITY = 999;
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 6;
+    private static final int MAC_LENGTH = 16;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String KEY_LABEL = "ogani-guest-cart-v1";
+
+    private final SecretKeySpec key;
+    private final Duration maxAge;
+
+    public GuestCartCodec(@Value("${cart.guest.secret:}") String secret,
+                          @Value("${jwt.secret:}") String jwtSecret,
+                          @Value("${cart.guest.max-age-days:30}") long maxAgeDays) {
+        if ((secret == null || secret.isBlank()) && (jwtSecret == null || jwtSecret.isBlank())) {
+            throw new IllegalStateException("cart.guest.secret atau jwt.secret wajib diisi");
+        }
+        this.key = secret != null && !secret.isBlank()
+                ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM)
+                : new SecretKeySpec(hmac(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM),
+                        KEY_LABEL.getBytes(StandardCharsets.UTF_8)), ALGORITHM);
+        this.maxAge = Duration.ofDays(maxAgeDays);
+    }
+
+    /**
+     * Cookie untuk token; token null menghapus cookie (setelah merge atau clear).
+     */
+    public ResponseCookie toCookie(String token) {
+        return ResponseCookie.from(COOKIE_NAME, token != null ? token : "")
+                .httpOnly(true)
+                .path("/api")
+                .sameSite("Lax")
+                .maxAge(token != null ? maxAge : Duration.ZERO)
+                .build();
+    }
+
+    /**
+     * Token untuk isi cart (productId -> quantity, urutan dipertahankan).
+     */
+    public String encode(Map<Integer, Integer> lines) {
+        if (lines.size() > MAX_LINES) {
+            throw new IllegalArgumentException("Guest cart maksimal " + MAX_LINES + " product");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_LENGTH + lines.size() * 6 + MAC_LENGTH);
+        out.write(VERSION);
+        out.writeBytes(ByteBuffer.allocate(4).putInt((int) (System.currentTimeMillis() / 1000)).array());
+        out.write(lines.size());
+        lines.forEach((productId, quantity) -> {
+            writeVarint(out, productId);
+            writeVarint(out, quantity);
+        });
+        out.writeBytes(mac(out.toByteArray()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    /**
+     * Isi cart dari token. Token kosong, rusak, signature salah, atau kadaluarsa dianggap cart kosong.
+     */
+    public Map<Integer, Integer> decode(String token) {
+        Map<Integer, Integer> lines = new LinkedHashMap<>();
+        if (token == null || token.isBlank()) {
+            return lines;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length < HEADER_LENGTH + MAC_LENGTH) {
+                throw new IllegalArgumentException("token terlalu pendek");
+            }
+            byte[] payload = Arrays.copyOf(bytes, bytes.length - MAC_LENGTH);
+            byte[] signature = Arrays.copyOfRange(bytes, payload.length, bytes.length);
+            if (!MessageDigest.isEqual(mac(payload), signature)) {
+                throw new IllegalArgumentException("signature tidak valid");
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            if (buffer.get() != VERSION) {
+                throw new IllegalArgumentException("version tidak dikenal");
+            }
+            long issuedAt = Integer.toUnsignedLong(buffer.getInt());
+            if (System.currentTimeMillis() / 1000 - issuedAt > maxAge.toSeconds()) {
+                throw new IllegalArgumentException("token kadaluarsa");
+            }
+            int count = Byte.toUnsignedInt(buffer.get());
+            if (count > MAX_LINES) {
+                throw new IllegalArgumentException("terlalu banyak line");
+            }
+            for (int i = 0; i < count; i++) {
+                int productId = readVarint(buffer);
+                int quantity = readVarint(buffer);
+                if (productId <= 0 || quantity <= 0 || quantity > MAX_QUANTITY) {
+                    throw new IllegalArgumentException("line tidak valid");
+                }
+                lines.put(productId, quantity);
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("trailing bytes");
+            }
+            return lines;
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            log.debug("Guest cart token ignored: {}", e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+
+    // Helper methods
+
+    private byte[] mac(byte[] payload) {
+        return Arrays.copyOf(hmac(key, payload), MAC_LENGTH);
+    }
+
+    private static byte[] hmac(SecretKeySpec key, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint terlalu panjang");
+    }
+}
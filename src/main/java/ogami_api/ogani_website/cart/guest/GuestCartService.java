@@ -0,0 +1,134 @@
+package ogami_api.ogani_website.cart.guest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.cart.dto.BulkCartResponse;
+import ogami_api.ogani_website.cart.dto.CartItemResponse;
+import ogami_api.ogani_website.cart.dto.CartResponse;
+import ogami_api.ogani_website.cart.service.CartService;
+import ogami_api.ogani_website.cart.store.CatalogCache;
+import ogami_api.ogani_website.exception.DataNotFoundException;
+import ogami_api.ogani_website.exception.InsufficientStockException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guest cart untuk visitor yang belum login. Isi cart hanya ada di token (GuestCartCodec),
+ * jadi tidak ada row cart untuk visitor anonim / bot. Data product dibaca dari CatalogCache.
+ * Saat login atau register, isi token di-merge ke tabel cart dalam satu batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GuestCartService {
+
+    private final GuestCartCodec guestCartCodec;
+    private final CatalogCache catalogCache;
+    private final CartService cartService;
+
+    /**
+     * Token baru beserta isi cart-nya.
+     */
+    public record Result(String token, CartResponse cart) {
+    }
+
+    public CartResponse getCart(String token) {
+        return toCartResponse(guestCartCodec.decode(token));
+    }
+
+    /**
+     * Tambah product; quantity dijumlah dengan line yang sudah ada.
+     */
+    public Result addItem(String token, Integer productId, Integer quantity) {
+        Map<Integer, Integer> lines = guestCartCodec.decode(token);
+        if (!lines.containsKey(productId) && lines.size() >= GuestCartCodec.MAX_LINES) {
+            throw new IllegalArgumentException("Guest cart maksimal " + GuestCartCodec.MAX_LINES + " product");
+        }
+        return setQuantity(lines, productId, lines.getOrDefault(productId, 0) + quantity);
+    }
+
+    public Result updateItem(String token, Integer productId, Integer quantity) {
+        Map<Integer, Integer> lines = guestCartCodec.decode(token);
+        if (!lines.containsKey(productId)) {
+            throw new DataNotFoundException("Cart item", productId);
+        }
+        return setQuantity(lines, productId, quantity);
+    }
+
+    public Result removeItem(String token, Integer productId) {
+        Map<Integer, Integer> lines = guestCartCodec.decode(token);
+        if (lines.remove(productId) == null) {
+            throw new DataNotFoundException("Cart item", productId);
+        }
+        return new Result(guestCartCodec.encode(lines), toCartResponse(lines));
+    }
+
+    /**
+     * Merge guest cart ke cart user (satu batch upsert). Line yang product-nya hilang atau stoknya
+     * tidak cukup dilewati. Idempotent (quantity = max cart / guest), jadi token yang di-replay saat
+     * login berikutnya tidak menggandakan quantity. Mengembalikan jumlah line yang masuk.
+     */
+    public int mergeInto(Integer userId, String token) {
+        Map<Integer, Integer> lines = guestCartCodec.decode(token);
+        if (lines.isEmpty()) {
+            return 0;
+        }
+        BulkCartResponse response = cartService.mergeGuestCart(userId, lines);
+        log.info("Guest cart merged for user {}: {} of {} lines", userId, response.getAdded(), lines.size());
+        return response.getAdded();
+    }
+
+    // Helper methods
+
+    private Result setQuantity(Map<Integer, Integer> lines, Integer productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity harus lebih dari 0");
+        }
+        if (quantity > GuestCartCodec.MAX_QUANTITY) {
+            throw new IllegalArgumentException("Quantity maksimal " + GuestCartCodec.MAX_QUANTITY);
+        }
+        CatalogCache.Entry product = catalogCache.getAll(List.of(productId)).get(productId);
+        if (product == null) {
+            throw new DataNotFoundException("Product", productId);
+        }
+        int available = catalogCache.available(product);
+        if (available < quantity) {
+            throw new InsufficientStockException(product.productName(), quantity, available);
+        }
+        lines.put(productId, quantity);
+        return new Result(guestCartCodec.encode(lines), toCartResponse(lines));
+    }
+
+    private CartResponse toCartResponse(Map<Integer, Integer> lines) {
+        Map<Integer, CatalogCache.Entry> products = catalogCache.getAll(lines.keySet());
+        List<CartItemResponse> items = new ArrayList<>(lines.size());
+        lines.forEach((productId, quantity) -> {
+            CatalogCache.Entry product = products.get(productId);
+            if (product == null) {
+                return;  // product sudah dihapus
+            }
+            items.add(CartItemResponse.builder()
+                    .productId(productId)
+                    .productName(product.productName())
+                    .productPrice(product.price())
+                    .productImage(product.productImage())
+                    .quantity(quantity)
+                    .subtotal(product.price().multiply(BigDecimal.valueOf(quantity)))
+                    .build());
+        });
+
+        BigDecimal totalPrice = items.stream()
+                .map(CartItemResponse::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return CartResponse.builder()
+                .items(items)
+                .totalItems(items.size())
+                .totalPrice(totalPrice)
+                .build();
+    }
+}
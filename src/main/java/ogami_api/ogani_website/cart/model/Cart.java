@@ -15,7 +15,8 @@ import ogami_api.ogani_website.user.model.User;
  * Shopping cart items untuk setiap user.
  */
 @Entity
-@Table(name = "cart")
+@Table(name = "cart", uniqueConstraints = @UniqueConstraint(
+        name = "uk_cart_user_product", columnNames = {"user_id", "product_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,6 +2,9 @@ package ogami_api.ogani_website.cart.repository;
 
 import ogami_api.ogani_website.cart.model.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,16 +21,36 @@ public interface CartRepository extends JpaRepository<Cart, Integer> {
      */
     List<Cart> findByUser_UserId(Integer userId);
 
+    /**
+     * Cart items user beserta product-nya dalam satu query (dipakai saat checkout).
+     */
+    @Query("select c from Cart c join fetch c.product p where c.user.userId = :userId order by p.productId")
+    List<Cart> findWithProductByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Cart item user + product beserta product-nya (read-back setelah upsert di addToCart).
+     */
+    @Query("select c from Cart c join fetch c.product p where c.user.userId = :userId and p.productId = :productId")
+    Optional<Cart> findWithProductByUserIdAndProductId(@Param("userId") Integer userId,
+                                                       @Param("productId") Integer productId);
+
     /**
      * Find specific cart item (user + product combination).
      */
     Optional<Cart> findByUser_UserIdAndProduct_ProductId(Integer userId, Integer productId);
 
     /**
-     * Delete all cart items for a user (after checkout).
+     * Delete all cart items for a user (after checkout). Satu statement DELETE, tanpa load entity.
      */
-    void deleteByUser_UserId(Integer userId);
+    @Modifying
+    @Query("delete from Cart c where c.user.userId = :userId")
+    void deleteByUser_UserId(@Param("userId") Integer userId);
     
+    /**
+     * Cek user punya cart item (validasi ringan sebelum checkout async).
+     */
+    boolean existsByUser_UserId(Integer userId);
+
     /**
      * Count cart items for a user.
      */
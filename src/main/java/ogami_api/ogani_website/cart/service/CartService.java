@@ -1,18 +1,27 @@
 package ogami_api.ogani_website.cart.service;
 
 import lombok.RequiredArgsConstructor;
+import ogami_api.ogani_website.cart.dto.BulkCartResponse;
+import ogami_api.ogani_website.cart.dto.CartSummaryResponse;
 import ogami_api.ogani_website.cart.model.Cart;
 import ogami_api.ogani_website.cart.repository.CartRepository;
+import ogami_api.ogani_website.cart.store.CartStore;
 import ogami_api.ogani_website.exception.DataNotFoundException;
 import ogami_api.ogani_website.exception.InsufficientStockException;
+import ogami_api.ogani_website.product.inventory.HotInventoryEngine;
 import ogami_api.ogani_website.product.model.Product;
-import ogami_api.ogani_website.product.repository.ProductRepository;
-import ogami_api.ogani_website.user.repository.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service layer untuk Cart.
@@ -24,126 +33,256 @@ import java.util.List;
 public class CartService {
 
     private final CartRepository cartRepository;
-    private final UserRepository userRepository;
-    private final ProductRepository productRepository;
+    private final HotInventoryEngine hotInventoryEngine;
+    private final JdbcTemplate jdbcTemplate;
+    private final CartStore cartStore;
+    private final CartSummaryCache cartSummaryCache;
+
+    // Insert hanya kalau product ada; item yang sudah ada di cart ditambah quantity-nya.
+    // Stok tidak dicek di SQL: kolom stock bisa tertinggal untuk product hot, jadi validasi stok
+    // selalu lewat availableStock / HotInventoryEngine
+    private static final String UPSERT_CART_SQL = """
+            INSERT INTO cart (user_id, product_id, quantity)
+            SELECT ?, p.product_id, ? FROM products p WHERE p.product_id = ?
+            ON DUPLICATE KEY UPDATE quantity = cart.quantity + ?
+            """;
+
+    // Merge guest cart: quantity akhir = max(cart user, guest cart), jadi merge token yang sama berulang kali
+    // tidak menambah quantity lagi
+    private static final String MERGE_CART_SQL = """
+            INSERT INTO cart (user_id, product_id, quantity)
+            SELECT ?, p.product_id, ? FROM products p WHERE p.product_id = ?
+            ON DUPLICATE KEY UPDATE quantity = GREATEST(cart.quantity, ?)
+            """;
+
+    // Stok product + quantity yang sudah ada di cart user, untuk semua product di batch
+    private static final String BATCH_VALIDATE_SQL = """
+            SELECT p.product_id, p.stock, p.price, c.quantity AS cart_quantity
+            FROM products p
+            LEFT JOIN cart c ON c.product_id = p.product_id AND c.user_id = ?
+            WHERE p.product_id IN (%s)
+            """;
 
     /**
-     * Get all cart items untuk user tertentu.
+     * Get all cart items untuk user tertentu (dari CartStore kalau aktif).
      */
     public List<Cart> getCartByUserId(Integer userId) {
+        if (cartStore.isEnabled()) {
+            return cartStore.getCart(userId);
+        }
         return cartRepository.findByUser_UserId(userId);
     }
 
     /**
      * Add product to cart.
+     * Satu INSERT ... ON DUPLICATE KEY UPDATE (unique key user_id + product_id, jadi double click tidak
+     * membuat row duplikat), lalu read-back cart + product untuk response dan validasi total quantity.
+     * Upsert tanpa row berarti product tidak ada. Kalau total melebihi stok, exception me-rollback upsert.
+     * userId dari JWT, tidak perlu SELECT users.
      */
     public Cart addToCart(Integer userId, Integer productId, Integer quantity) {
-        // Validasi user exists
-        var user = userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("User", userId));
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity harus lebih dari 0");
+        }
 
-        // Validasi product exists
-        var product = productRepository.findById(productId)
+        cartStore.lockForWrite(userId);
+        long token = cartSummaryCache.begin(userId);
+        int changed = jdbcTemplate.update(UPSERT_CART_SQL, userId, quantity, productId, quantity);
+        if (changed == 0) {
+            throw new DataNotFoundException("Product", productId);
+        }
+
+        Cart cart = cartRepository.findWithProductByUserIdAndProductId(userId, productId)
                 .orElseThrow(() -> new DataNotFoundException("Product", productId));
 
-        // Validasi stock
-        if (product.getStock() < quantity) {
-            throw new InsufficientStockException(
-                    product.getProductName(),
-                    quantity,
-                    product.getStock()
-            );
+        int available = availableStock(cart.getProduct());
+        if (available < cart.getQuantity()) {
+            throw new InsufficientStockException(cart.getProduct().getProductName(), cart.getQuantity(), available);
         }
+        // Update count (found rows): 1 = insert line baru, 2 = quantity line lama ditambah
+        int previousQuantity = changed == 1 ? 0 : cart.getQuantity() - quantity;
+        cartSummaryCache.lineChanged(userId, token, previousQuantity, cart.getQuantity(),
+                cart.getProduct().getPrice());
+        return cart;
+    }
+
+    /**
+     * Add banyak product sekaligus dalam satu transaksi: satu query validasi (product + stok + isi cart
+     * saat ini) untuk semua line, lalu satu JDBC batch upsert untuk line yang valid.
+     * Line yang tidak valid dilewati dan dilaporkan per product, line lain tetap masuk.
+     */
+    public BulkCartResponse addToCartBatch(Integer userId, Map<Integer, Integer> quantities) {
+        return upsertBatch(userId, quantities, false);
+    }
+
+    /**
+     * Merge guest cart ke cart user dalam satu batch. Idempotent: quantity tiap product menjadi
+     * max(quantity di cart, quantity di guest cart), jadi token yang di-replay tidak menambah apa-apa.
+     */
+    public BulkCartResponse mergeGuestCart(Integer userId, Map<Integer, Integer> quantities) {
+        return upsertBatch(userId, quantities, true);
+    }
+
+    /**
+     * Satu query validasi + satu JDBC batch upsert. merge = false: quantity ditambahkan,
+     * merge = true: quantity = max(cart, request).
+     */
+    private BulkCartResponse upsertBatch(Integer userId, Map<Integer, Integer> quantities, boolean merge) {
+        // Urut sesuai request, line dengan product sama sudah dijumlah oleh caller
+        Map<Integer, Integer> lines = new LinkedHashMap<>(quantities);
+        lines.values().forEach(quantity -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity harus lebih dari 0");
+            }
+        });
+
+        cartStore.lockForWrite(userId);
+        long token = cartSummaryCache.begin(userId);
+        Map<Integer, int[]> current = new HashMap<>();  // productId -> {stock, cartQuantity}
+        Map<Integer, BigDecimal> prices = new HashMap<>();
+        List<Object> validateArgs = new ArrayList<>(lines.size() + 1);
+        validateArgs.add(userId);
+        validateArgs.addAll(lines.keySet());
+        jdbcTemplate.query(String.format(BATCH_VALIDATE_SQL, String.join(",", Collections.nCopies(lines.size(), "?"))),
+                (RowCallbackHandler) rs -> {
+                    current.put(rs.getInt("product_id"), new int[]{rs.getInt("stock"), rs.getInt("cart_quantity")});
+                    prices.put(rs.getInt("product_id"), rs.getBigDecimal("price"));
+                },
+                validateArgs.toArray());
 
-        // Check if product sudah ada di cart
-        var existingCart = cartRepository.findByUser_UserIdAndProduct_ProductId(userId, productId);
-
-        if (existingCart.isPresent()) {
-            // Update quantity
-            Cart cart = existingCart.get();
-            int newQuantity = cart.getQuantity() + quantity;
-
-            // Validate stock lagi
-            if (product.getStock() < newQuantity) {
-                throw new InsufficientStockException(
-                        product.getProductName(),
-                        newQuantity,
-                        product.getStock()
-                );
+        List<BulkCartResponse.Result> results = new ArrayList<>(lines.size());
+        List<Object[]> upserts = new ArrayList<>(lines.size());
+        lines.forEach((productId, quantity) -> {
+            int[] row = current.get(productId);
+            if (row == null) {
+                results.add(new BulkCartResponse.Result(productId, quantity, BulkCartResponse.Outcome.NOT_FOUND, null, null));
+                return;
             }
+            int available = hotInventoryEngine.isHot(productId) ? hotInventoryEngine.available(productId) : row[0];
+            int cartQuantity = merge ? Math.max(row[1], quantity) : row[1] + quantity;
+            if (cartQuantity == row[1]) {
+                // Merge: cart user sudah punya quantity yang sama atau lebih, tidak ada yang berubah
+                results.add(new BulkCartResponse.Result(productId, quantity,
+                        BulkCartResponse.Outcome.ADDED, cartQuantity, available));
+                return;
+            }
+            if (available < cartQuantity) {
+                results.add(new BulkCartResponse.Result(productId, quantity,
+                        BulkCartResponse.Outcome.INSUFFICIENT_STOCK, row[1], available));
+                return;
+            }
+            upserts.add(new Object[]{userId, quantity, productId, quantity});
+            cartSummaryCache.lineChanged(userId, token, row[1], cartQuantity, prices.get(productId));
+            results.add(new BulkCartResponse.Result(productId, quantity,
+                    BulkCartResponse.Outcome.ADDED, cartQuantity, available));
+        });
 
-            cart.setQuantity(newQuantity);
-            return cartRepository.save(cart);
-        } else {
-            // Create new cart item
-            Cart cart = Cart.builder()
-                    .user(user)
-                    .product(product)
-                    .quantity(quantity)
-                    .build();
-            return cartRepository.save(cart);
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(merge ? MERGE_CART_SQL : UPSERT_CART_SQL, upserts);
         }
+        return BulkCartResponse.builder()
+                .added((int) results.stream().filter(result -> result.getOutcome() == BulkCartResponse.Outcome.ADDED).count())
+                .results(results)
+                .build();
     }
 
     /**
-     * Update quantity cart item.
+     * Update quantity cart item milik user.
      */
-    public Cart updateCartQuantity(Integer cartId, Integer quantity) {
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new DataNotFoundException("Cart item", cartId));
-
+    public Cart updateCartQuantity(Integer userId, Integer cartId, Integer quantity) {
         // Validasi quantity
-        if (quantity <= 0) {
+        if (quantity == null || quantity <= 0) {
             throw new IllegalArgumentException("Quantity harus lebih dari 0");
         }
+        long token = cartSummaryCache.begin(userId);
+        if (cartStore.isEnabled()) {
+            CartStore.Change change = cartStore.updateQuantity(userId, cartId, quantity);
+            cartSummaryCache.lineChanged(userId, token, change.before().getQuantity(), quantity,
+                    change.after().getProduct().getPrice());
+            return change.after();
+        }
+
+        Cart cart = findOwnedItem(userId, cartId);
 
         // Validasi stock
         Product product = cart.getProduct();
-        if (product.getStock() < quantity) {
+        int available = availableStock(product);
+        if (available < quantity) {
             throw new InsufficientStockException(
                     product.getProductName(),
                     quantity,
-                    product.getStock()
+                    available
             );
         }
 
+        cartSummaryCache.lineChanged(userId, token, cart.getQuantity(), quantity, product.getPrice());
         cart.setQuantity(quantity);
         return cartRepository.save(cart);
     }
 
     /**
-     * Remove item from cart.
+     * Remove item from cart milik user.
      */
-    public void removeFromCart(Integer cartId) {
-        if (!cartRepository.existsById(cartId)) {
-            throw new DataNotFoundException("Cart item", cartId);
+    public void removeFromCart(Integer userId, Integer cartId) {
+        long token = cartSummaryCache.begin(userId);
+        Cart cart = cartStore.isEnabled() ? cartStore.remove(userId, cartId) : findOwnedItem(userId, cartId);
+        if (!cartStore.isEnabled()) {
+            cartRepository.delete(cart);
         }
-        cartRepository.deleteById(cartId);
+        cartSummaryCache.lineChanged(userId, token, cart.getQuantity(), 0, cart.getProduct().getPrice());
     }
 
     /**
      * Clear all cart items untuk user tertentu.
      */
     public void clearCart(Integer userId) {
+        cartStore.lockForWrite(userId);
+        long token = cartSummaryCache.begin(userId);
         cartRepository.deleteByUser_UserId(userId);
+        cartSummaryCache.invalidate(userId, token);
+    }
+
+    /**
+     * Ringkasan cart (jumlah item, total, version) dari CartSummaryCache.
+     */
+    @Transactional(readOnly = true)
+    public CartSummaryResponse getCartSummary(Integer userId) {
+        return cartSummaryCache.get(userId);
     }
 
     /**
      * Calculate total price dari cart.
      */
+    @Transactional(readOnly = true)
     public BigDecimal calculateCartTotal(Integer userId) {
-        List<Cart> cartItems = getCartByUserId(userId);
-
-        return cartItems.stream()
-                .map(cart -> cart.getProduct().getPrice()
-                        .multiply(BigDecimal.valueOf(cart.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return cartSummaryCache.get(userId).getTotalPrice();
     }
 
     /**
      * Get cart item count untuk user.
      */
+    @Transactional(readOnly = true)
     public Long getCartItemCount(Integer userId) {
-        return cartRepository.countByUser_UserId(userId);
+        return (long) cartSummaryCache.get(userId).getItemCount();
+    }
+
+    /**
+     * Cart item by id, 404 juga kalau item milik user lain.
+     */
+    private Cart findOwnedItem(Integer userId, Integer cartId) {
+        return cartRepository.findById(cartId)
+                .filter(cart -> cart.getUser().getUserId().equals(userId))
+                .orElseThrow(() -> new DataNotFoundException("Cart item", cartId));
+    }
+
+    /**
+     * Stok tersedia: dari HotInventoryEngine untuk product hot (kolom stock bisa tertinggal
+     * sampai flush berikutnya), selain itu dari kolom stock.
+     */
+    private int availableStock(Product product) {
+        if (hotInventoryEngine.isHot(product.getProductId())) {
+            return hotInventoryEngine.available(product.getProductId());
+        }
+        return product.getStock();
     }
 }
@@ -0,0 +1,190 @@
+package ogami_api.ogani_website.cart.service;
+
+import ogami_api.ogani_website.cart.dto.CartSummaryResponse;
+import ogami_api.ogani_website.cart.model.Cart;
+import ogami_api.ogani_website.cart.store.CartStore;
+import ogami_api.ogani_website.product.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+
+/**
+ * Ringkasan cart per user (jumlah item, total harga, version) untuk badge dan total cart.
+ * Di-load sekali per user, lalu di-update incremental (delta per line) setelah transaksi add/update/remove
+ * commit. Clear, checkout, dan perubahan harga product menghapus entry, dan load berikutnya membaca ulang.
+ *
+ * Supaya load yang berjalan bersamaan dengan mutasi tidak menyimpan nilai basi, setiap user punya
+ * counter (di-stripe): mutasi menaikkan counter sebelum menulis (begin) dan lagi saat apply setelah commit.
+ * Load hanya disimpan kalau counter tidak berubah selama query, dan delta hanya diterapkan ke entry yang
+ * di-load sebelum mutasi dimulai; entry lain dibuang.
+ */
+@Component
+public class CartSummaryCache {
+
+    private static final int STRIPES = 64;
+
+    private static final String SUMMARY_SQL = """
+            SELECT COUNT(*) AS item_count, COALESCE(SUM(p.price * c.quantity), 0) AS total_price
+            FROM cart c
+            JOIN products p ON p.product_id = c.product_id
+            WHERE c.user_id = ?
+            """;
+
+    private static final String USERS_BY_PRODUCT_SQL = "SELECT DISTINCT user_id FROM cart WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CartStore cartStore;
+    private final int maxUsers;
+    private final Map<Integer, Summary> summaries = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    public CartSummaryCache(JdbcTemplate jdbcTemplate,
+                            CartStore cartStore,
+                            @Value("${cart.summary.max-users:100000}") int maxUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cartStore = cartStore;
+        this.maxUsers = maxUsers;
+    }
+
+    private record Summary(int itemCount, BigDecimal totalPrice, long version, long loadedAt) {
+    }
+
+    /**
+     * Ringkasan cart user, O(1) kalau sudah ada di cache.
+     */
+    public CartSummaryResponse get(Integer userId) {
+        Summary summary = summaries.get(userId);
+        if (summary == null) {
+            summary = load(userId);
+        }
+        return CartSummaryResponse.builder()
+                .itemCount(summary.itemCount())
+                .totalPrice(summary.totalPrice())
+                .version(summary.version())
+                .build();
+    }
+
+    /**
+     * Dipanggil sebelum mengubah cart user; hasilnya diteruskan ke lineChanged / invalidate.
+     */
+    public long begin(Integer userId) {
+        return versions.incrementAndGet(stripe(userId));
+    }
+
+    /**
+     * Delta satu line cart (quantity lama -> baru, dengan harga product), diterapkan setelah commit.
+     */
+    public void lineChanged(Integer userId, long token, int previousQuantity, int quantity, BigDecimal price) {
+        int countDelta = (quantity > 0 ? 1 : 0) - (previousQuantity > 0 ? 1 : 0);
+        BigDecimal totalDelta = price.multiply(BigDecimal.valueOf((long) quantity - previousQuantity));
+        afterCommit(userId, token, summary -> new Summary(summary.itemCount() + countDelta,
+                summary.totalPrice().add(totalDelta), summary.version(), summary.loadedAt()));
+    }
+
+    /**
+     * Buang ringkasan user setelah commit (clear cart, checkout, merge cart).
+     */
+    public void invalidate(Integer userId, long token) {
+        afterCommit(userId, token, summary -> null);
+    }
+
+    /**
+     * Harga berubah: buang ringkasan semua user yang punya product tersebut di cart.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!event.isPriceChanged()) {
+            return;
+        }
+        List<Integer> userIds = jdbcTemplate.queryForList(USERS_BY_PRODUCT_SQL, Integer.class, event.getProductId());
+        userIds.forEach(userId -> apply(userId, Long.MAX_VALUE, summary -> null));
+    }
+
+    // Helper methods
+
+    private Summary load(Integer userId) {
+        int stripe = stripe(userId);
+        long seen = versions.get(stripe);
+
+        int itemCount;
+        BigDecimal totalPrice;
+        if (cartStore.isEnabled()) {
+            // Journal CartStore bisa belum di-flush, jadi hitung dari store
+            List<Cart> items = cartStore.getCart(userId);
+            itemCount = items.size();
+            totalPrice = items.stream()
+                    .map(cart -> cart.getProduct().getPrice().multiply(BigDecimal.valueOf(cart.getQuantity())))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        } else {
+            Map<String, Object> row = jdbcTemplate.queryForMap(SUMMARY_SQL, userId);
+            itemCount = ((Number) row.get("item_count")).intValue();
+            totalPrice = new BigDecimal(row.get("total_price").toString());
+        }
+        Summary loaded = new Summary(itemCount, totalPrice, seen, seen);
+
+        if (summaries.size() >= maxUsers) {
+            evictOne();
+        }
+        summaries.compute(userId, (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            return versions.get(stripe) == seen ? loaded : null;
+        });
+        return loaded;
+    }
+
+    private void afterCommit(Integer userId, long token, UnaryOperator<Summary> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(userId, token, change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Rollback: buang saja, perubahan CartStore di memory tidak ikut rollback
+                apply(userId, token, status == STATUS_COMMITTED ? change : summary -> null);
+            }
+        });
+    }
+
+    /**
+     * Counter dinaikkan di dalam compute, jadi tidak bisa menyelip di antara cek dan simpan milik load.
+     * Entry yang di-load setelah token (mungkin sudah melihat mutasi ini) dibuang.
+     * Change yang mengembalikan null membuang entry.
+     */
+    private void apply(Integer userId, long token, UnaryOperator<Summary> change) {
+        summaries.compute(userId, (id, summary) -> {
+            long version = versions.incrementAndGet(stripe(userId));
+            if (summary == null || summary.loadedAt() >= token) {
+                return null;
+            }
+            Summary changed = change.apply(summary);
+            return changed != null
+                    ? new Summary(changed.itemCount(), changed.totalPrice(), version, changed.loadedAt())
+                    : null;
+        });
+    }
+
+    private void evictOne() {
+        Iterator<Integer> iterator = summaries.keySet().iterator();
+        if (iterator.hasNext()) {
+            summaries.remove(iterator.next());
+        }
+    }
+
+    private static int stripe(Integer userId) {
+        return Math.floorMod(userId, STRIPES);
+    }
+}
@@ -0,0 +1,342 @@
+package ogami_api.ogani_website.cart.store;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.cart.model.Cart;
+import ogami_api.ogani_website.exception.DataNotFoundException;
+import ogami_api.ogani_website.exception.InsufficientStockException;
+import ogami_api.ogani_website.product.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cart store in-process (opsional, cart.store.enabled) untuk cart yang sedang aktif.
+ * Cart user di-load sekali dari tabel cart lalu dibaca dari memory, data product dari CatalogCache.
+ * Update quantity dan remove item dicatat di journal per user dan di-flush berkala ke tabel cart
+ * dalam JDBC batch (write-behind). Add, batch add, clear, dan checkout tetap langsung ke database
+ * (write-through) lewat lockForWrite: journal user di-flush dulu, lock user dipegang sampai transaksi
+ * selesai, lalu cart di memory dibuang dan di-load ulang saat dibaca. Jadi checkout selalu membaca
+ * snapshot cart yang konsisten dan tidak ada mutasi yang menyelip selama checkout berjalan.
+ * Hanya untuk deployment single instance.
+ */
+@Component
+@Slf4j
+public class CartStore {
+
+    private static final String LOAD_SQL = "SELECT cart_id, product_id, quantity FROM cart WHERE user_id = ?";
+    private static final String UPDATE_SQL = "UPDATE cart SET quantity = ? WHERE user_id = ? AND product_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM cart WHERE user_id = ? AND product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final CatalogCache catalogCache;
+    private final boolean enabled;
+    private final int maxUsers;
+    private final Map<Integer, UserCart> carts = new ConcurrentHashMap<>();
+
+    public CartStore(JdbcTemplate jdbcTemplate,
+                     PlatformTransactionManager transactionManager,
+                     CatalogCache catalogCache,
+                     @Value("${cart.store.enabled:false}") boolean enabled,
+                     @Value("${cart.store.max-users:10000}") int maxUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Flush selalu di transaksi sendiri: rollback transaksi caller tidak boleh membatalkan journal yang sudah dikosongkan
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.catalogCache = catalogCache;
+        this.enabled = enabled;
+        this.maxUsers = maxUsers;
+    }
+
+    private static final class UserCart {
+        final Integer userId;
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Integer, Line> lines = new TreeMap<>();             // productId -> line
+        final Map<Integer, Integer> journal = new LinkedHashMap<>();  // productId -> quantity, 0 = hapus
+        boolean loaded;
+        boolean evicted;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        UserCart(Integer userId) {
+            this.userId = userId;
+        }
+    }
+
+    private record Line(Integer cartId, Integer productId, int quantity) {
+    }
+
+    /**
+     * Item sebelum dan sesudah update quantity.
+     */
+    public record Change(Cart before, Cart after) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Dipanggil sebelum menulis cart user langsung ke database (add, clear, checkout).
+     * No-op kalau store tidak aktif.
+     */
+    public void lockForWrite(Integer userId) {
+        if (!enabled) {
+            return;
+        }
+        UserCart cart = acquire(userId);
+        try {
+            flushJournal(List.of(cart));
+        } catch (RuntimeException e) {
+            cart.lock.unlock();
+            throw e;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(cart);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(cart);
+            }
+        });
+    }
+
+    /**
+     * Cart user (Cart dan Product transient, hanya untuk dibaca).
+     */
+    public List<Cart> getCart(Integer userId) {
+        UserCart cart = acquire(userId);
+        try {
+            load(cart);
+            return toCarts(cart.lines.values());
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Update quantity item (write-behind).
+     */
+    public Change updateQuantity(Integer userId, Integer cartId, int quantity) {
+        UserCart cart = acquire(userId);
+        try {
+            load(cart);
+            Line line = findLine(cart, cartId);
+            CatalogCache.Entry product = catalogCache.getAll(List.of(line.productId())).get(line.productId());
+            if (product == null) {
+                throw new DataNotFoundException("Product", line.productId());
+            }
+            int available = catalogCache.available(product);
+            if (available < quantity) {
+                throw new InsufficientStockException(product.productName(), quantity, available);
+            }
+            Line updated = new Line(line.cartId(), line.productId(), quantity);
+            cart.lines.put(line.productId(), updated);
+            cart.journal.put(line.productId(), quantity);
+            return new Change(toCart(line, product), toCart(updated, product));
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Hapus item (write-behind), mengembalikan item yang dihapus.
+     */
+    public Cart remove(Integer userId, Integer cartId) {
+        UserCart cart = acquire(userId);
+        try {
+            load(cart);
+            Line line = findLine(cart, cartId);
+            cart.lines.remove(line.productId());
+            cart.journal.put(line.productId(), 0);
+            return toCarts(List.of(line)).stream().findFirst()
+                    .orElseThrow(() -> new DataNotFoundException("Product", line.productId()));
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Write-behind: flush journal semua user dalam satu transaksi. User yang sedang dipakai dilewati
+     * dan ikut flush berikutnya.
+     */
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:500}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        List<UserCart> locked = new ArrayList<>();
+        try {
+            for (UserCart cart : carts.values()) {
+                if (cart.lock.tryLock()) {
+                    locked.add(cart);
+                }
+            }
+            flushJournal(locked);
+        } catch (RuntimeException e) {
+            // Journal tidak dikosongkan, dicoba lagi di flush berikutnya
+            log.error("Cart store flush failed", e);
+        } finally {
+            locked.forEach(cart -> cart.lock.unlock());
+        }
+        evictIdle();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        List<UserCart> locked = new ArrayList<>();
+        try {
+            for (UserCart cart : carts.values()) {
+                cart.lock.lock();
+                locked.add(cart);
+            }
+            flushJournal(locked);
+        } finally {
+            locked.forEach(cart -> cart.lock.unlock());
+        }
+    }
+
+    // Helper methods (flushJournal, load, evict dipanggil dengan lock user sudah dipegang)
+
+    /**
+     * Lock cart user. Cart yang ter-evict di antara get dan lock diganti dengan instance baru.
+     */
+    private UserCart acquire(Integer userId) {
+        while (true) {
+            UserCart cart = carts.computeIfAbsent(userId, UserCart::new);
+            cart.lock.lock();
+            if (!cart.evicted) {
+                cart.lastAccess = System.currentTimeMillis();
+                return cart;
+            }
+            cart.lock.unlock();
+        }
+    }
+
+    private void load(UserCart cart) {
+        if (cart.loaded) {
+            return;
+        }
+        jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> cart.lines.put(rs.getInt("product_id"),
+                new Line(rs.getInt("cart_id"), rs.getInt("product_id"), rs.getInt("quantity"))), cart.userId);
+        cart.loaded = true;
+    }
+
+    private void flushJournal(List<UserCart> locked) {
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (UserCart cart : locked) {
+            cart.journal.forEach((productId, quantity) -> {
+                if (quantity > 0) {
+                    updates.add(new Object[]{quantity, cart.userId, productId});
+                } else {
+                    deletes.add(new Object[]{cart.userId, productId});
+                }
+            });
+        }
+        if (updates.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
+        flushTransaction.executeWithoutResult(status -> {
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+            }
+        });
+        locked.forEach(cart -> cart.journal.clear());
+    }
+
+    private void evict(UserCart cart) {
+        try {
+            cart.evicted = true;
+            carts.remove(cart.userId, cart);
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Batasi jumlah cart di memory: buang cart paling lama tidak diakses yang journal-nya kosong.
+     */
+    private void evictIdle() {
+        int excess = carts.size() - maxUsers;
+        if (excess <= 0) {
+            return;
+        }
+        List<UserCart> candidates = new ArrayList<>(carts.values());
+        candidates.sort(Comparator.comparingLong(cart -> cart.lastAccess));
+        for (UserCart cart : candidates) {
+            if (excess <= 0) {
+                break;
+            }
+            if (cart.lock.tryLock()) {
+                if (cart.journal.isEmpty()) {
+                    evict(cart);
+                    excess--;
+                } else {
+                    cart.lock.unlock();
+                }
+            }
+        }
+    }
+
+    private static Line findLine(UserCart cart, Integer cartId) {
+        return cart.lines.values().stream()
+                .filter(line -> line.cartId().equals(cartId))
+                .findFirst()
+                .orElseThrow(() -> new DataNotFoundException("Cart item", cartId));
+    }
+
+    private List<Cart> toCarts(Iterable<Line> lines) {
+        List<Integer> productIds = new ArrayList<>();
+        lines.forEach(line -> productIds.add(line.productId()));
+        Map<Integer, CatalogCache.Entry> products = catalogCache.getAll(productIds);
+
+        List<Cart> result = new ArrayList<>();
+        for (Line line : lines) {
+            CatalogCache.Entry product = products.get(line.productId());
+            if (product != null) {
+                result.add(toCart(line, product));
+            }
+        }
+        return result;
+    }
+
+    private static Cart toCart(Line line, CatalogCache.Entry product) {
+        return Cart.builder()
+                .cartId(line.cartId())
+                .quantity(line.quantity())
+                .product(Product.builder()
+                        .productId(product.productId())
+                        .productName(product.productName())
+                        .price(product.price())
+                        .productImage(product.productImage())
+                        .stock(product.stock())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package ogami_api.ogani_website.cart.store;
+
+import lombok.RequiredArgsConstructor;
+import ogami_api.ogani_website.product.dto.ProductResponse;
+import ogami_api.ogani_website.product.event.ProductChangedEvent;
+import ogami_api.ogani_website.product.event.StockChangedEvent;
+import ogami_api.ogani_website.product.inventory.HotInventoryEngine;
+import ogami_api.ogani_website.product.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache nama / harga / gambar / stok product untuk CartStore, supaya baca cart tidak perlu load Product.
+ * Entry di-load on demand (satu query IN untuk product yang belum ada), dihapus saat product berubah,
+ * dan stok di-update dari StockChangedEvent.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCache {
+
+    private final ProductRepository productRepository;
+    private final HotInventoryEngine hotInventoryEngine;
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    public record Entry(Integer productId, String productName, BigDecimal price, String productImage, int stock) {
+    }
+
+    /**
+     * Entry untuk product yang diminta; product yang tidak ada tidak masuk map hasil.
+     */
+    public Map<Integer, Entry> getAll(Collection<Integer> productIds) {
+        Map<Integer, Entry> result = new HashMap<>();
+        List<Integer> missing = productIds.stream().filter(id -> !entries.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            for (ProductResponse product : productRepository.findResponsesByProductIdIn(missing)) {
+                entries.put(product.getProductId(), new Entry(product.getProductId(), product.getProductName(),
+                        product.getPrice(), product.getProductImage(), product.getStock() != null ? product.getStock() : 0));
+            }
+        }
+        for (Integer productId : productIds) {
+            Entry entry = entries.get(productId);
+            if (entry != null) {
+                result.put(productId, entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stok tersedia: product hot dari HotInventoryEngine, selain itu dari cache.
+     */
+    public int available(Entry entry) {
+        if (hotInventoryEngine.isHot(entry.productId())) {
+            return hotInventoryEngine.available(entry.productId());
+        }
+        return entry.stock();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        entries.remove(event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        entries.computeIfPresent(event.getProductId(), (id, entry) -> new Entry(entry.productId(),
+                entry.productName(), entry.price(), entry.productImage(), entry.stock() + event.getDelta()));
+    }
+}
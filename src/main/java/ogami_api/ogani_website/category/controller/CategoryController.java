@@ -8,15 +8,19 @@ import ogami_api.ogani_website.category.dto.CategoryRequest;
 import ogami_api.ogani_website.category.dto.CategoryResponse;
 import ogami_api.ogani_website.category.model.Category;
 import ogami_api.ogani_website.category.service.CategoryService;
-import org.springframework.data.domain.Page;
+import ogami_api.ogani_website.common.CursorCodec;
+import ogami_api.ogani_website.common.CursorPage;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -34,27 +38,42 @@ public class CategoryController {
     /**
      * GET /api/categories - Get all categories with optional pagination.
      * Params: page, size, sort
+     * Cursor mode: cursor (kosong untuk halaman pertama) + size, seek berdasarkan categoryId.
      */
     @GetMapping
     public ResponseEntity<?> getAllCategories(
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer size,
-            @RequestParam(required = false) String sort) {
-        
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor) {
+
+        // Cursor mode: tanpa OFFSET dan tanpa COUNT query
+        if (cursor != null) {
+            int pageSize = (size != null && size > 0 && size <= 100) ? size : 10;
+            Integer afterId = cursor.isBlank() ? 0 : CursorCodec.decodeId(cursor);
+            List<CategoryResponse> categories = categoryService.getCategoriesAfter(afterId, pageSize + 1);
+            return ResponseEntity.ok(CursorPage.of(categories, pageSize, Function.identity(),
+                    category -> CursorCodec.encodeId(category.getCategoryId())));
+        }
+
         // If pagination params provided, return paginated response
         if (page != null && size != null) {
             Pageable pageable = createPageable(page, size, sort);
-            Page<Category> categoryPage = categoryService.getAllCategories(pageable);
-            Page<CategoryResponse> responsePage = categoryPage.map(this::toResponse);
-            return ResponseEntity.ok(responsePage);
+            return ResponseEntity.ok(categoryService.getAllCategories(pageable));
         }
         
         // Otherwise return all categories
-        List<Category> categories = categoryService.getAllCategories();
-        List<CategoryResponse> response = categories.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(categoryService.getAllCategories());
+    }
+
+    /**
+     * GET /api/categories dengan Accept: application/x-ndjson - Stream semua category, satu JSON per baris.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCategories() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(categoryService::streamAllCategories);
     }
 
     /**
@@ -62,8 +81,7 @@ public class CategoryController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Integer id) {
-        Category category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(toResponse(category));
+        return ResponseEntity.ok(categoryService.getCategoryResponseById(id));
     }
 
     /**
@@ -73,7 +91,7 @@ public class CategoryController {
     public ResponseEntity<CategoryResponse> createCategory(@Valid @RequestBody CategoryRequest request) {
         Category category = toEntity(request);
         Category created = categoryService.createCategory(category);
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(created));
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(created, 0));
     }
 
     /**
@@ -85,7 +103,7 @@ public class CategoryController {
             @Valid @RequestBody CategoryRequest request) {
         Category category = toEntity(request);
         Category updated = categoryService.updateCategory(id, category);
-        return ResponseEntity.ok(toResponse(updated));
+        return ResponseEntity.ok(toResponse(updated, categoryService.countProducts(id)));
     }
 
     /**
@@ -108,7 +126,7 @@ public class CategoryController {
         
         List<Category> created = categoryService.createCategoriesBulk(categories);
         List<CategoryResponse> response = created.stream()
-                .map(this::toResponse)
+                .map(category -> toResponse(category, 0))
                 .collect(Collectors.toList());
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -147,12 +165,15 @@ public class CategoryController {
                 .build();
     }
 
-    private CategoryResponse toResponse(Category category) {
+    /**
+     * productCount dihitung terpisah supaya collection products tidak di-initialize.
+     */
+    private CategoryResponse toResponse(Category category, long productCount) {
         return CategoryResponse.builder()
                 .categoryId(category.getCategoryId())
                 .categoryName(category.getCategoryName())
                 .image(category.getImage())
-                .productCount(category.getProducts() != null ? category.getProducts().size() : 0)
+                .productCount((int) productCount)
                 .build();
     }
 }
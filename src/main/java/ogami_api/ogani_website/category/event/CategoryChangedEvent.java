@@ -0,0 +1,39 @@
+package ogami_api.ogani_website.category.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ogami_api.ogani_website.category.model.Category;
+
+/**
+ * Event yang dipublish oleh CategoryService setiap kali category berubah.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CategoryChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType type;
+    private final Integer categoryId;
+    private final Category category;  // null untuk DELETED
+
+    public static CategoryChangedEvent created(Category category) {
+        return new CategoryChangedEvent(ChangeType.CREATED, category.getCategoryId(), category);
+    }
+
+    public static CategoryChangedEvent updated(Category category) {
+        return new CategoryChangedEvent(ChangeType.UPDATED, category.getCategoryId(), category);
+    }
+
+    public static CategoryChangedEvent deleted(Integer categoryId) {
+        return new CategoryChangedEvent(ChangeType.DELETED, categoryId, null);
+    }
+
+    public boolean isDeleted() {
+        return type == ChangeType.DELETED;
+    }
+}
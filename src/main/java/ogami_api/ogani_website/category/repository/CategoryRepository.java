@@ -1,9 +1,15 @@
 package ogami_api.ogani_website.category.repository;
 
+import ogami_api.ogani_website.category.dto.CategoryResponse;
 import ogami_api.ogani_website.category.model.Category;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,6 +18,15 @@ import java.util.Optional;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
+    /**
+     * Projection CategoryResponse dengan productCount dari GROUP BY (product tidak di-hydrate).
+     */
+    String RESPONSE_SELECT = "select new ogami_api.ogani_website.category.dto.CategoryResponse("
+            + "c.categoryId, c.categoryName, c.image, cast(count(p) as Integer)) "
+            + "from Category c left join c.products p ";
+
+    String RESPONSE_GROUP_BY = "group by c.categoryId, c.categoryName, c.image ";
+
     /**
      * Find category by name.
      */
@@ -21,4 +36,21 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
      * Check if category name already exists.
      */
     Boolean existsByCategoryName(String categoryName);
+
+    // Read path: DTO projection
+
+    @Query(RESPONSE_SELECT + RESPONSE_GROUP_BY + "order by c.categoryId")
+    List<CategoryResponse> findAllResponses();
+
+    @Query(value = RESPONSE_SELECT + RESPONSE_GROUP_BY, countQuery = "select count(c) from Category c")
+    Page<CategoryResponse> findAllResponses(Pageable pageable);
+
+    /**
+     * Keyset pagination: category setelah categoryId tertentu (tanpa OFFSET dan COUNT).
+     */
+    @Query(RESPONSE_SELECT + "where c.categoryId > :categoryId " + RESPONSE_GROUP_BY + "order by c.categoryId")
+    List<CategoryResponse> findResponsesAfter(@Param("categoryId") Integer categoryId, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "where c.categoryId = :categoryId " + RESPONSE_GROUP_BY)
+    Optional<CategoryResponse> findResponseById(@Param("categoryId") Integer categoryId);
 }
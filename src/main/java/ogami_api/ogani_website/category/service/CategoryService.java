@@ -1,15 +1,27 @@
 package ogami_api.ogani_website.category.service;
 
 import lombok.RequiredArgsConstructor;
+import ogami_api.ogani_website.category.dto.CategoryResponse;
+import ogami_api.ogani_website.category.event.CategoryChangedEvent;
 import ogami_api.ogani_website.category.model.Category;
 import ogami_api.ogani_website.category.repository.CategoryRepository;
+import ogami_api.ogani_website.common.NdjsonStreamer;
 import ogami_api.ogani_website.exception.DataAlreadyExistsException;
 import ogami_api.ogani_website.exception.DataNotFoundException;
+import ogami_api.ogani_website.product.event.ProductChangedEvent;
+import ogami_api.ogani_website.product.model.Product;
+import ogami_api.ogani_website.product.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import java.util.List;
 
 /**
@@ -22,19 +34,73 @@ import java.util.List;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NdjsonStreamer ndjsonStreamer;
+
+    private static final String STREAM_CATEGORIES_SQL = """
+            SELECT c.category_id, c.category_name, c.image, COUNT(p.product_id) AS product_count
+            FROM categories c
+            LEFT JOIN products p ON p.category_id = c.category_id
+            GROUP BY c.category_id, c.category_name, c.image
+            ORDER BY c.category_id
+            """;
 
     /**
-     * Get all categories.
+     * Get all categories (productCount dihitung dengan GROUP BY, product tidak di-load).
      */
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<CategoryResponse> getAllCategories() {
+        return categoryRepository.findAllResponses();
     }
 
     /**
      * Get all categories with pagination.
      */
-    public Page<Category> getAllCategories(Pageable pageable) {
-        return categoryRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<CategoryResponse> getAllCategories(Pageable pageable) {
+        return categoryRepository.findAllResponses(pageable);
+    }
+
+    /**
+     * Stream semua category sebagai NDJSON langsung dari JDBC cursor.
+     * Field sama dengan CategoryResponse, productCount dihitung di query.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamAllCategories(OutputStream out) throws IOException {
+        ndjsonStreamer.stream(out, STREAM_CATEGORIES_SQL, new Object[0], (rs, json) -> {
+            json.writeStartObject();
+            NdjsonStreamer.writeInt(json, "categoryId", rs, "category_id");
+            NdjsonStreamer.writeString(json, "categoryName", rs, "category_name");
+            NdjsonStreamer.writeString(json, "image", rs, "image");
+            NdjsonStreamer.writeInt(json, "productCount", rs, "product_count");
+            json.writeEndObject();
+        });
+    }
+
+    /**
+     * Get categories setelah categoryId tertentu (keyset pagination).
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryResponse> getCategoriesAfter(Integer afterCategoryId, int limit) {
+        return categoryRepository.findResponsesAfter(afterCategoryId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Get category response by ID (dengan productCount).
+     */
+    @Transactional(readOnly = true)
+    public CategoryResponse getCategoryResponseById(Integer id) {
+        return categoryRepository.findResponseById(id)
+                .orElseThrow(() -> new DataNotFoundException("Category", id));
+    }
+
+    /**
+     * Hitung jumlah product dalam category.
+     */
+    @Transactional(readOnly = true)
+    public long countProducts(Integer categoryId) {
+        return productRepository.countByCategory_CategoryId(categoryId);
     }
 
     /**
@@ -59,7 +125,9 @@ public class CategoryService {
             throw new DataAlreadyExistsException("Category dengan nama " + category.getCategoryName() + " sudah ada");
         }
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(CategoryChangedEvent.created(saved));
+        return saved;
     }
 
     /**
@@ -82,17 +150,18 @@ public class CategoryService {
             existing.setImage(updatedCategory.getImage());
         }
 
-        return categoryRepository.save(existing);
+        Category saved = categoryRepository.save(existing);
+        eventPublisher.publishEvent(CategoryChangedEvent.updated(saved));
+        return saved;
     }
 
     /**
      * Delete category.
      */
     public void deleteCategory(Integer id) {
-        if (!categoryRepository.existsById(id)) {
-            throw new DataNotFoundException("Category", id);
-        }
-        categoryRepository.deleteById(id);
+        Category category = getCategoryById(id);
+        publishDeleted(category);
+        categoryRepository.delete(category);
     }
 
     /**
@@ -114,7 +183,9 @@ public class CategoryService {
         }
 
         // Save all categories in batch
-        return categoryRepository.saveAll(categories);
+        List<Category> saved = categoryRepository.saveAll(categories);
+        saved.forEach(category -> eventPublisher.publishEvent(CategoryChangedEvent.created(category)));
+        return saved;
     }
 
     /**
@@ -130,6 +201,20 @@ public class CategoryService {
         }
 
         // Delete all categories
-        categoryRepository.deleteAllById(categoryIds);
+        List<Category> categories = categoryRepository.findAllById(categoryIds);
+        categories.forEach(this::publishDeleted);
+        categoryRepository.deleteAll(categories);
+    }
+
+    /**
+     * Publish event delete untuk category beserta product-nya (ikut terhapus karena cascade).
+     */
+    private void publishDeleted(Category category) {
+        if (category.getProducts() != null) {
+            for (Product product : category.getProducts()) {
+                eventPublisher.publishEvent(ProductChangedEvent.deleted(product.getProductId()));
+            }
+        }
+        eventPublisher.publishEvent(CategoryChangedEvent.deleted(category.getCategoryId()));
     }
 }
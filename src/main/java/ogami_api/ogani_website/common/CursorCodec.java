@@ -0,0 +1,80 @@
+package ogami_api.ogani_website.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encode/decode cursor untuk keyset pagination.
+ * Cursor bersifat opaque bagi client (base64url dari sort key baris terakhir).
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Cursor dari single key (misalnya productId).
+     */
+    public static String encodeId(Integer id) {
+        return encode(String.valueOf(id));
+    }
+
+    public static Integer decodeId(String cursor) {
+        String[] parts = decode(cursor, 1);
+        return parseInt(parts[0]);
+    }
+
+    /**
+     * Cursor dari composite key (timestamp, id), misalnya (orderTime, orderId).
+     */
+    public static String encodeTimeAndId(LocalDateTime time, Integer id) {
+        return encode(time + SEPARATOR + id);
+    }
+
+    public static TimeAndId decodeTimeAndId(String cursor) {
+        String[] parts = decode(cursor, 2);
+        try {
+            return new TimeAndId(LocalDateTime.parse(parts[0]), parseInt(parts[1]));
+        } catch (DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    public record TimeAndId(LocalDateTime time, Integer id) {
+    }
+
+    // Helper methods
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != expectedParts) {
+                throw invalid();
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Cursor tidak valid");
+    }
+}
@@ -0,0 +1,44 @@
+package ogami_api.ogani_website.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Response untuk keyset (cursor) pagination.
+ * Tidak ada totalElements karena cursor mode sengaja tidak menjalankan COUNT query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+
+    private List<T> items;
+    private Integer size;
+    private Boolean hasNext;
+    private String nextCursor;  // null kalau sudah halaman terakhir
+
+    /**
+     * Build page dari hasil query yang di-fetch dengan limit size + 1.
+     * Row ekstra hanya dipakai untuk tahu apakah masih ada halaman berikutnya.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size,
+                                          Function<E, T> mapper,
+                                          Function<E, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        return CursorPage.<T>builder()
+                .items(pageRows.stream().map(mapper).collect(Collectors.toList()))
+                .size(pageRows.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null)
+                .build();
+    }
+}
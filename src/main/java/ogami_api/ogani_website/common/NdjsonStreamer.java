@@ -0,0 +1,116 @@
+package ogami_api.ogani_website.common;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streaming query result ke response dalam format NDJSON (satu JSON object per baris).
+ * Query dijalankan dengan forward-only cursor dan fetch size terbatas, dan setiap row
+ * langsung ditulis ke output stream sehingga memory tetap konstan berapapun jumlah row-nya.
+ * Catatan: MySQL butuh useCursorFetch=true di JDBC URL supaya fetch size dihormati.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonStreamer {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${streaming.fetch-size:500}")
+    private int fetchSize;
+
+    /**
+     * Handler per row. Handler boleh stateful (misalnya grouping order + items),
+     * setiap root JSON value yang ditulis otomatis dipisah newline.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+
+        void onRow(ResultSet rs, JsonGenerator json) throws SQLException, IOException;
+
+        default void onComplete(JsonGenerator json) throws IOException {
+        }
+    }
+
+    public void stream(OutputStream out, String sql, Object[] args, RowHandler handler) throws IOException {
+        JsonGenerator json = JSON_FACTORY.createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(new SerializedString("\n"));
+
+        int[] rows = {0};
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                for (int i = 0; i < args.length; i++) {
+                    ps.setObject(i + 1, args[i]);
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    handler.onRow(rs, json);
+                    // Flush per batch fetch supaya client langsung menerima data
+                    if (++rows[0] % fetchSize == 0) {
+                        json.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        handler.onComplete(json);
+        if (rows[0] > 0) {
+            json.writeRaw('\n');
+        }
+        json.close();
+    }
+
+    // Helper untuk menulis kolom nullable
+
+    public static void writeInt(JsonGenerator json, String field, ResultSet rs, String column) throws SQLException, IOException {
+        int value = rs.getInt(column);
+        if (rs.wasNull()) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    public static void writeDecimal(JsonGenerator json, String field, ResultSet rs, String column) throws SQLException, IOException {
+        BigDecimal value = rs.getBigDecimal(column);
+        if (value == null) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    public static void writeString(JsonGenerator json, String field, ResultSet rs, String column) throws SQLException, IOException {
+        json.writeStringField(field, rs.getString(column));
+    }
+
+    public static void writeDateTime(JsonGenerator json, String field, ResultSet rs, String column) throws SQLException, IOException {
+        LocalDateTime value = rs.getObject(column, LocalDateTime.class);
+        json.writeStringField(field, value != null ? value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null);
+    }
+}
@@ -0,0 +1,12 @@
+package ogami_api.ogani_website.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enable @Scheduled jobs (flush inventory, dll).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
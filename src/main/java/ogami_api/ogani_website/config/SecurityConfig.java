@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import ogami_api.ogani_website.auth.filter.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -33,16 +34,22 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/products/**").permitAll()
                         .requestMatchers("/api/categories/**").permitAll()
+                        .requestMatchers("/api/cart/guest/**", "/api/cart/guest").permitAll()
                         
                         // Swagger/OpenAPI endpoints (public access)
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/api-docs/**", "/v3/api-docs/**").permitAll()
                         
+                        // Order status changes (ADMIN only, juga memindahkan stok)
+                        .requestMatchers(HttpMethod.PUT, "/api/orders/status/bulk", "/api/orders/*/status").hasRole("ADMIN")
+
                         // User endpoints (authentication required)
                         .requestMatchers("/api/cart/**").authenticated()
                         .requestMatchers("/api/orders/**").authenticated()
                         
                         // Admin endpoints (ADMIN role required)
-                        // .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         
                         // Default: all other requests need authentication
                         .anyRequest().authenticated()
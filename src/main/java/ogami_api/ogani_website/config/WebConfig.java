@@ -21,6 +21,7 @@ public class WebConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Guest-Cart")  // token guest cart
                 .allowCredentials(true);
     }
 }
@@ -44,6 +44,15 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServiceBusy(ServiceBusyException ex) {
+        return new ErrorResponse(
+                "SERVICE_BUSY",
+                ex.getMessage()
+        );
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleIllegalArgument(IllegalArgumentException ex) {
@@ -0,0 +1,11 @@
+package ogami_api.ogani_website.exception;
+
+/**
+ * Exception thrown ketika server sedang penuh (misalnya antrian checkout penuh), client boleh retry.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,56 @@
+package ogami_api.ogani_website.order.controller;
+
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import ogami_api.ogani_website.common.CursorPage;
+import ogami_api.ogani_website.order.dto.OrderSearchCriteria;
+import ogami_api.ogani_website.order.dto.OrderSummaryResponse;
+import ogami_api.ogani_website.order.model.OrderStatus;
+import ogami_api.ogani_website.order.service.OrderSearchService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * REST Controller untuk admin order management (role ADMIN).
+ */
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+@Tag(name = "Admin Orders", description = "Order search for fulfilment (ADMIN role required)")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminOrderController {
+
+    private final OrderSearchService orderSearchService;
+
+    /**
+     * GET /api/admin/orders - Search order.
+     * Params (semua opsional): status, from, to (ISO date-time, to exclusive), invoicePrefix, userId,
+     * cursor (dari nextCursor halaman sebelumnya) + size.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<OrderSummaryResponse>> searchOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String invoicePrefix,
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = (size != null && size > 0 && size <= 100) ? size : 20;
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                .status(status)
+                .from(from)
+                .to(to)
+                .invoicePrefix(invoicePrefix)
+                .userId(userId)
+                .build();
+        return ResponseEntity.ok(orderSearchService.search(criteria, cursor, pageSize));
+    }
+}
@@ -5,20 +5,29 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.common.CursorCodec;
+import ogami_api.ogani_website.common.CursorPage;
+import ogami_api.ogani_website.exception.DataNotFoundException;
+import ogami_api.ogani_website.order.dto.BulkStatusRequest;
+import ogami_api.ogani_website.order.dto.BulkStatusResponse;
 import ogami_api.ogani_website.order.dto.OrderItemResponse;
 import ogami_api.ogani_website.order.dto.OrderRequest;
 import ogami_api.ogani_website.order.dto.OrderResponse;
 import ogami_api.ogani_website.order.model.Order;
 import ogami_api.ogani_website.order.model.OrderStatus;
+import ogami_api.ogani_website.order.service.AsyncCheckoutService;
+import ogami_api.ogani_website.order.service.IdempotentCheckoutService;
 import ogami_api.ogani_website.order.service.OrderService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -35,20 +44,33 @@ import java.util.stream.Collectors;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotentCheckoutService idempotentCheckoutService;
+    private final AsyncCheckoutService asyncCheckoutService;
 
     /**
      * GET /api/orders - Get current user's orders with optional pagination.
      * Params: page, size, sort
+     * Cursor mode: cursor (kosong untuk halaman pertama) + size, seek berdasarkan (orderTime, orderId).
      */
     @GetMapping
     public ResponseEntity<?> getUserOrders(
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer size,
             @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
         
         Integer userId = getUserIdFromAuth(authentication);
 
+        // Cursor mode: tanpa OFFSET dan tanpa COUNT query
+        if (cursor != null) {
+            int pageSize = (size != null && size > 0 && size <= 100) ? size : 10;
+            CursorCodec.TimeAndId after = cursor.isBlank() ? null : CursorCodec.decodeTimeAndId(cursor);
+            List<Order> orders = orderService.getOrdersByUserIdBefore(userId, after, pageSize + 1);
+            return ResponseEntity.ok(CursorPage.of(orders, pageSize, this::toOrderResponse,
+                    order -> CursorCodec.encodeTimeAndId(order.getOrderTime(), order.getOrderId())));
+        }
+
         // If pagination params provided, return paginated response
         if (page != null && size != null) {
             Pageable pageable = createPageable(page, size, sort);
@@ -65,6 +87,18 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * GET /api/orders dengan Accept: application/x-ndjson - Stream semua order user (beserta items), satu JSON per baris.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserOrders(Authentication authentication) {
+        // userId di-resolve di request thread, body ditulis di async thread
+        Integer userId = getUserIdFromAuth(authentication);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> orderService.streamOrdersByUserId(userId, out));
+    }
+
     /**
      * GET /api/orders/{id} - Get order detail.
      */
@@ -76,22 +110,60 @@ public class OrderController {
 
     /**
      * GET /api/orders/invoice/{code} - Get order by invoice code.
+     * Checkout async yang belum selesai dijawab 202 dengan status QUEUED/PROCESSING, yang gagal dengan status FAILED.
      */
     @GetMapping("/invoice/{code}")
-    public ResponseEntity<OrderResponse> getOrderByInvoice(@PathVariable String code) {
-        Order order = orderService.getOrderByInvoiceCode(code);
-        return ResponseEntity.ok(toOrderResponse(order));
+    public ResponseEntity<?> getOrderByInvoice(@PathVariable String code) {
+        var pending = asyncCheckoutService.findPending(code);
+        if (pending.isPresent()) {
+            return ResponseEntity.accepted().body(pending.get());
+        }
+        try {
+            Order order = orderService.getOrderByInvoiceCode(code);
+            return ResponseEntity.ok(toOrderResponse(order));
+        } catch (DataNotFoundException e) {
+            return ResponseEntity.ok(asyncCheckoutService.findFailure(code).orElseThrow(() -> e));
+        }
     }
 
     /**
      * POST /api/orders - Create order (checkout from cart).
+     * Header opsional Idempotency-Key: retry dengan key yang sama mengembalikan order yang sama
+     * tanpa menjalankan checkout lagi.
+     * Param async=true: checkout masuk antrian, response 202 berisi invoice code untuk polling
+     * di GET /api/orders/invoice/{code}.
      */
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(
+    public ResponseEntity<?> createOrder(
             @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestParam(defaultValue = "false") boolean async,
             Authentication authentication) {
         Integer userId = getUserIdFromAuth(authentication);
 
+        if (async) {
+            if (idempotencyKey != null) {
+                throw new IllegalArgumentException("Idempotency-Key belum didukung untuk checkout async");
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(asyncCheckoutService.submit(
+                    userId,
+                    request.getReceiverName(),
+                    request.getReceiverPhone(),
+                    request.getShippingAddress()
+            ));
+        }
+
+        if (idempotencyKey != null) {
+            Order order = idempotentCheckoutService.createOrderFromCart(
+                    userId,
+                    idempotencyKey,
+                    request.getReceiverName(),
+                    request.getReceiverPhone(),
+                    request.getShippingAddress()
+            );
+            return ResponseEntity.status(HttpStatus.CREATED).body(toOrderResponse(order));
+        }
+
         Order order = orderService.createOrderFromCart(
                 userId,
                 request.getReceiverName(),
@@ -113,6 +185,15 @@ public class OrderController {
         return ResponseEntity.ok(toOrderResponse(order));
     }
 
+    /**
+     * PUT /api/orders/status/bulk - Update status banyak order sekaligus (Admin only).
+     * Response berisi outcome per order id (UPDATED, UNCHANGED, INVALID_TRANSITION, NOT_FOUND).
+     */
+    @PutMapping("/status/bulk")
+    public ResponseEntity<BulkStatusResponse> updateOrderStatusBulk(@Valid @RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatusBulk(request.getOrderIds(), request.getStatus()));
+    }
+
     /**
      * DELETE /api/orders/{id} - Cancel order (only if PENDING).
      */
@@ -156,8 +237,9 @@ public class OrderController {
             items = order.getOrderDetails().stream()
                     .map(detail -> OrderItemResponse.builder()
                             .detailId(detail.getDetailId())
-                            .productId(detail.getProduct().getProductId())
-                            .productName(detail.getProduct().getProductName())
+                            .productId(detail.getProductId())
+                            .productName(detail.getProductName())
+                            .productImage(detail.getProductImage())
                             .quantity(detail.getQuantity())
                             .priceAtOrder(detail.getPriceAtOrder())
                             .subtotal(detail.getSubtotal())
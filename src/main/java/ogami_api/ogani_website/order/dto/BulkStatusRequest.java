@@ -0,0 +1,29 @@
+package ogami_api.ogani_website.order.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ogami_api.ogani_website.order.model.OrderStatus;
+
+import java.util.List;
+
+/**
+ * DTO untuk bulk update status order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusRequest {
+
+    @NotEmpty(message = "Order ids cannot be empty")
+    @Size(max = 1000, message = "Cannot update more than 1000 orders at once")
+    private List<Integer> orderIds;
+
+    @NotNull(message = "Status wajib diisi")
+    private OrderStatus status;
+}
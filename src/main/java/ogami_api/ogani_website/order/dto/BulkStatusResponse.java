@@ -0,0 +1,41 @@
+package ogami_api.ogani_website.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ogami_api.ogani_website.order.model.OrderStatus;
+
+import java.util.List;
+
+/**
+ * DTO untuk hasil bulk update status, satu result per order id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusResponse {
+
+    private OrderStatus status;
+    private Integer updated;
+    private List<Result> results;
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,          // sudah di status target
+        INVALID_TRANSITION,
+        NOT_FOUND
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+
+        private Integer orderId;
+        private Outcome outcome;
+        private OrderStatus previousStatus;  // null kalau NOT_FOUND
+    }
+}
@@ -0,0 +1,21 @@
+package ogami_api.ogani_website.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ogami_api.ogani_website.order.model.CheckoutStatus;
+
+/**
+ * DTO untuk status checkout async (response 202 dan polling by invoice code).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckoutStatusResponse {
+
+    private String invoiceCode;
+    private CheckoutStatus status;
+    private String message;
+}
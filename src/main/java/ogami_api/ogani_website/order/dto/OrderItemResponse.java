@@ -19,6 +19,7 @@ public class OrderItemResponse {
     private Integer detailId;
     private Integer productId;
     private String productName;
+    private String productImage;
     private Integer quantity;
     private BigDecimal priceAtOrder;
     private BigDecimal subtotal;
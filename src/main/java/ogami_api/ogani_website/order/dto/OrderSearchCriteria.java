@@ -0,0 +1,26 @@
+package ogami_api.ogani_website.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ogami_api.ogani_website.order.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter untuk admin order search. Field null berarti tidak difilter.
+ * Range order_time: from inclusive, to exclusive.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSearchCriteria {
+
+    private OrderStatus status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String invoicePrefix;
+    private Integer userId;
+}
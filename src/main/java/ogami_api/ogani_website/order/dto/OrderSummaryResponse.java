@@ -0,0 +1,28 @@
+package ogami_api.ogani_website.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ogami_api.ogani_website.order.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO untuk baris hasil admin order search (tanpa items).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaryResponse {
+
+    private Integer orderId;
+    private String invoiceCode;
+    private Integer userId;
+    private OrderStatus orderStatus;
+    private LocalDateTime orderTime;
+    private String receiverName;
+    private BigDecimal totalPrice;
+}
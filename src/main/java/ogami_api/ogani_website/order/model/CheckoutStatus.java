@@ -0,0 +1,10 @@
+package ogami_api.ogani_website.order.model;
+
+/**
+ * Enum untuk status checkout async yang belum menjadi order.
+ */
+public enum CheckoutStatus {
+    QUEUED,
+    PROCESSING,
+    FAILED
+}
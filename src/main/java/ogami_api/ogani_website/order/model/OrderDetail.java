@@ -13,7 +13,8 @@ import java.math.BigDecimal;
 
 /**
  * Entity class untuk tabel order_details.
- * Detail items dalam setiap order dengan price snapshot.
+ * Detail items dalam setiap order dengan snapshot harga, nama, dan gambar product saat checkout,
+ * jadi order history tidak perlu membaca tabel products.
  */
 @Entity
 @Table(name = "order_details")
@@ -38,6 +39,16 @@ public class OrderDetail {
     @JoinColumn(name = "product_id")
     private Product product;
 
+    // Read-only, supaya productId bisa dibaca tanpa load Product
+    @Column(name = "product_id", insertable = false, updatable = false)
+    private Integer productId;
+
+    @Column(name = "product_name", length = 100)
+    private String productName;
+
+    @Column(name = "product_image", length = 255)
+    private String productImage;
+
     @Column(name = "quantity")
     private Integer quantity;
 
@@ -1,12 +1,54 @@
 package ogami_api.ogani_website.order.model;
 
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
 /**
- * Enum untuk status order.
+ * Enum untuk status order beserta transisi yang diizinkan:
+ * PENDING -> PROCESSING / SHIPPED / CANCELLED, PROCESSING -> SHIPPED / CANCELLED, SHIPPED -> COMPLETED.
+ * COMPLETED dan CANCELLED adalah status akhir.
  */
 public enum OrderStatus {
     PENDING,
     PROCESSING,
     SHIPPED,
     COMPLETED,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Parse nilai kolom order_status (enum MySQL lowercase) saat dibaca lewat JDBC.
+     */
+    public static OrderStatus fromColumn(String value) {
+        return value != null ? valueOf(value.toUpperCase(Locale.ROOT)) : null;
+    }
+
+    /**
+     * Status tujuan yang valid dari status ini.
+     */
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(PROCESSING, SHIPPED, CANCELLED);
+            case PROCESSING -> EnumSet.of(SHIPPED, CANCELLED);
+            case SHIPPED -> EnumSet.of(COMPLETED);
+            case COMPLETED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return nextStatuses().contains(target);
+    }
+
+    /**
+     * Status asal yang boleh pindah ke target (dipakai sebagai guard di UPDATE bulk).
+     */
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : values()) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
 }
@@ -0,0 +1,30 @@
+package ogami_api.ogani_website.order.repository;
+
+import ogami_api.ogani_website.order.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository untuk IdempotencyRecord entity.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    /**
+     * Find record by user + Idempotency-Key.
+     */
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Integer userId, String idempotencyKey);
+
+    /**
+     * Hapus record yang lebih tua dari cutoff, maksimal limit row (index idx_idempotency_created).
+     */
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE created_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
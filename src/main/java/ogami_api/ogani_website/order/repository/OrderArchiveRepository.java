@@ -0,0 +1,138 @@
+package ogami_api.ogani_website.order.repository;
+
+import ogami_api.ogani_website.order.model.Order;
+import ogami_api.ogani_website.order.model.OrderDetail;
+import ogami_api.ogani_website.order.model.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-only akses ke tabel orders_archive / order_details_archive (JDBC, bukan entity JPA).
+ * Order yang dikembalikan detached: hanya untuk dibaca, jangan di-save.
+ */
+@Repository
+public class OrderArchiveRepository {
+
+    private static final String SELECT_ORDER_SQL = """
+            SELECT order_id, invoice_code, total_price, order_status, order_time,
+                   receiver_name, receiver_phone, shipping_address
+            FROM orders_archive
+            """;
+
+    private static final String SELECT_DETAILS_SQL = """
+            SELECT order_id, detail_id, product_id, product_name, product_image, quantity, price_at_order, subtotal
+            FROM order_details_archive
+            WHERE order_id IN (%s)
+            ORDER BY order_id, detail_id
+            """;
+
+    // Urutan sama dengan list order di hot table (index idx_orders_user_time_id ikut ter-copy oleh LIKE)
+    private static final String USER_ORDER_BY = " ORDER BY order_time DESC, order_id DESC";
+
+    private static final RowMapper<Order> ORDER_MAPPER = (rs, rowNum) -> Order.builder()
+            .orderId(rs.getInt("order_id"))
+            .invoiceCode(rs.getString("invoice_code"))
+            .totalPrice(rs.getBigDecimal("total_price"))
+            .orderStatus(OrderStatus.fromColumn(rs.getString("order_status")))
+            .orderTime(rs.getObject("order_time", LocalDateTime.class))
+            .receiverName(rs.getString("receiver_name"))
+            .receiverPhone(rs.getString("receiver_phone"))
+            .shippingAddress(rs.getString("shipping_address"))
+            .build();
+
+    private static final RowMapper<OrderDetail> DETAIL_MAPPER = (rs, rowNum) -> OrderDetail.builder()
+            .detailId(rs.getInt("detail_id"))
+            .productId(rs.getObject("product_id", Integer.class))
+            .productName(rs.getString("product_name"))
+            .productImage(rs.getString("product_image"))
+            .quantity(rs.getInt("quantity"))
+            .priceAtOrder(rs.getBigDecimal("price_at_order"))
+            .subtotal(rs.getBigDecimal("subtotal"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<Order> findById(Integer orderId) {
+        return withDetails(jdbcTemplate.query(SELECT_ORDER_SQL + "WHERE order_id = ?", ORDER_MAPPER, orderId))
+                .stream().findFirst();
+    }
+
+    public Optional<Order> findByInvoiceCode(String invoiceCode) {
+        return withDetails(jdbcTemplate.query(SELECT_ORDER_SQL + "WHERE invoice_code = ?", ORDER_MAPPER, invoiceCode))
+                .stream().findFirst();
+    }
+
+    /**
+     * Semua order arsip milik user (orderTime desc, orderId desc).
+     */
+    public List<Order> findByUserId(Integer userId) {
+        return withDetails(jdbcTemplate.query(SELECT_ORDER_SQL + "WHERE user_id = ?" + USER_ORDER_BY,
+                ORDER_MAPPER, userId));
+    }
+
+    /**
+     * Order arsip milik user dengan offset (orderTime desc, orderId desc).
+     */
+    public List<Order> findByUserId(Integer userId, long offset, int limit) {
+        return withDetails(jdbcTemplate.query(SELECT_ORDER_SQL + "WHERE user_id = ?" + USER_ORDER_BY + " LIMIT ? OFFSET ?",
+                ORDER_MAPPER, userId, limit, offset));
+    }
+
+    /**
+     * Keyset: order arsip milik user setelah (orderTime, orderId); time null berarti halaman pertama.
+     */
+    public List<Order> findByUserBefore(Integer userId, LocalDateTime orderTime, Integer orderId, int limit) {
+        if (orderTime == null) {
+            return withDetails(jdbcTemplate.query(SELECT_ORDER_SQL + "WHERE user_id = ?" + USER_ORDER_BY + " LIMIT ?",
+                    ORDER_MAPPER, userId, limit));
+        }
+        return withDetails(jdbcTemplate.query(SELECT_ORDER_SQL
+                        + "WHERE user_id = ? AND (order_time < ? OR (order_time = ? AND order_id < ?))"
+                        + USER_ORDER_BY + " LIMIT ?",
+                ORDER_MAPPER, userId, orderTime, orderTime, orderId, limit));
+    }
+
+    public long countByUserId(Integer userId) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders_archive WHERE user_id = ?", Long.class, userId);
+        return count != null ? count : 0;
+    }
+
+    // Helper methods
+
+    /**
+     * Load details semua order dalam satu query.
+     */
+    private List<Order> withDetails(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Integer, Order> byId = new HashMap<>();
+        orders.forEach(order -> {
+            order.setOrderDetails(new ArrayList<>());
+            byId.put(order.getOrderId(), order);
+        });
+        jdbcTemplate.query(String.format(SELECT_DETAILS_SQL, String.join(",", Collections.nCopies(byId.size(), "?"))),
+                (RowCallbackHandler) rs -> {
+                    Order order = byId.get(rs.getInt("order_id"));
+                    OrderDetail detail = DETAIL_MAPPER.mapRow(rs, 0);
+                    detail.setOrder(order);
+                    order.getOrderDetails().add(detail);
+                },
+                byId.keySet().toArray());
+        return orders;
+    }
+}
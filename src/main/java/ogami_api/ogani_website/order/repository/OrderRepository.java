@@ -1,12 +1,19 @@
 package ogami_api.ogani_website.order.repository;
 
+import jakarta.persistence.LockModeType;
 import ogami_api.ogani_website.order.model.Order;
 import ogami_api.ogani_website.order.model.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,15 +34,49 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
     Page<Order> findByUser_UserId(Integer userId, Pageable pageable);
 
     /**
-     * Find order by invoice code.
+     * Keyset pagination halaman pertama: order terbaru milik user.
      */
+    @Query("select o from Order o where o.user.userId = :userId order by o.orderTime desc, o.orderId desc")
+    List<Order> findLatestByUser(@Param("userId") Integer userId, Pageable pageable);
+
+    /**
+     * Keyset pagination halaman berikutnya: seek setelah (orderTime, orderId) baris terakhir.
+     */
+    @Query("select o from Order o where o.user.userId = :userId "
+            + "and (o.orderTime < :orderTime or (o.orderTime = :orderTime and o.orderId < :orderId)) "
+            + "order by o.orderTime desc, o.orderId desc")
+    List<Order> findByUserBefore(@Param("userId") Integer userId,
+                                 @Param("orderTime") LocalDateTime orderTime,
+                                 @Param("orderId") Integer orderId,
+                                 Pageable pageable);
+
+    /**
+     * Find order by invoice code (beserta details).
+     */
+    @EntityGraph(attributePaths = "orderDetails")
     Optional<Order> findByInvoiceCode(String invoiceCode);
 
     /**
-     * Find orders by status.
+     * Find order by ID beserta details dalam satu query.
      */
-    List<Order> findByOrderStatus(OrderStatus status);
-    
+    @EntityGraph(attributePaths = "orderDetails")
+    Optional<Order> findWithDetailsByOrderId(Integer orderId);
+
+    /**
+     * Lock row order (SELECT ... FOR UPDATE) sebelum perubahan status.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.orderId = :orderId")
+    Optional<Order> findForUpdateByOrderId(@Param("orderId") Integer orderId);
+
+    /**
+     * Fase kedua load list order: initialize details untuk order yang sudah ada di persistence context
+     * dalam satu query. Dipisah dari query halaman supaya LIMIT tetap di database.
+     * Nama/gambar product di-snapshot di order_details, jadi tabel products tidak ikut dibaca.
+     */
+    @Query("select distinct o from Order o left join fetch o.orderDetails where o.orderId in :orderIds")
+    List<Order> fetchDetailsByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
     /**
      * Find orders by user and status.
      */
@@ -0,0 +1,251 @@
+package ogami_api.ogani_website.order.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.cart.repository.CartRepository;
+import ogami_api.ogani_website.exception.DataAlreadyExistsException;
+import ogami_api.ogani_website.exception.DataNotFoundException;
+import ogami_api.ogani_website.exception.InsufficientStockException;
+import ogami_api.ogani_website.exception.ServiceBusyException;
+import ogami_api.ogani_website.order.dto.CheckoutStatusResponse;
+import ogami_api.ogani_website.order.model.CheckoutStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checkout async dengan group commit.
+ * Request hanya divalidasi ringan lalu masuk antrian (bounded), client langsung dapat invoice code.
+ * Worker mengambil beberapa job sekaligus dan menjalankan semuanya dalam satu transaksi, jadi satu
+ * connection dan satu commit dipakai untuk banyak order. Kalau batch gagal (stok habis, deadlock, dll),
+ * batch di-rollback dan setiap job diulang di transaksinya sendiri supaya job lain tetap jalan.
+ * Status job hanya disimpan di memory node ini; order yang sudah commit dibaca dari database.
+ */
+@Service
+@Slf4j
+public class AsyncCheckoutService {
+
+    private static final long POLL_TIMEOUT_MS = 200;
+    private static final int MAX_FAILURES = 10_000;
+
+    private final OrderService orderService;
+    private final CartRepository cartRepository;
+    private final InvoiceCodeGenerator invoiceCodeGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int batchSize;
+    private final BlockingQueue<CheckoutJob> queue;
+
+    // Job yang belum selesai (QUEUED/PROCESSING), by invoice code
+    private final Map<String, CheckoutJob> pending = new ConcurrentHashMap<>();
+    // Satu checkout async per user, job kedua pasti gagal karena cart sudah kosong
+    private final Set<Integer> pendingUsers = ConcurrentHashMap.newKeySet();
+    // Pesan error job yang gagal (LRU, supaya polling tetap dapat jawaban)
+    private final Map<String, String> failures = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_FAILURES;
+        }
+    });
+
+    private ExecutorService executor;
+    private volatile boolean running = true;
+
+    public AsyncCheckoutService(OrderService orderService,
+                                CartRepository cartRepository,
+                                InvoiceCodeGenerator invoiceCodeGenerator,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${checkout.async.workers:4}") int workers,
+                                @Value("${checkout.async.batch-size:20}") int batchSize,
+                                @Value("${checkout.async.queue-capacity:1000}") int queueCapacity) {
+        this.orderService = orderService;
+        this.cartRepository = cartRepository;
+        this.invoiceCodeGenerator = invoiceCodeGenerator;
+        this.transactionTemplate = transactionTemplate;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    private static final class CheckoutJob {
+        final Integer userId;
+        final String invoiceCode;
+        final String receiverName;
+        final String receiverPhone;
+        final String shippingAddress;
+        volatile CheckoutStatus status = CheckoutStatus.QUEUED;
+
+        CheckoutJob(Integer userId, String invoiceCode, String receiverName, String receiverPhone, String shippingAddress) {
+            this.userId = userId;
+            this.invoiceCode = invoiceCode;
+            this.receiverName = receiverName;
+            this.receiverPhone = receiverPhone;
+            this.shippingAddress = shippingAddress;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "checkout-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::runWorker);
+        }
+        log.info("Async checkout started: {} workers, batch size {}", workers, batchSize);
+    }
+
+    /**
+     * Stop menerima job, selesaikan antrian yang tersisa.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Async checkout stopped with {} jobs still queued", queue.size());
+            }
+        }
+    }
+
+    /**
+     * Masukkan checkout ke antrian. Invoice code sudah final dan bisa dipakai untuk polling.
+     */
+    public CheckoutStatusResponse submit(Integer userId, String receiverName, String receiverPhone, String shippingAddress) {
+        if (!running) {
+            throw new ServiceBusyException("Server sedang shutdown, silakan coba lagi");
+        }
+        if (!cartRepository.existsByUser_UserId(userId)) {
+            throw new IllegalArgumentException("Cart kosong, tidak bisa checkout");
+        }
+        if (!pendingUsers.add(userId)) {
+            throw new DataAlreadyExistsException("Checkout sebelumnya masih diproses");
+        }
+
+        CheckoutJob job = new CheckoutJob(userId, invoiceCodeGenerator.nextCode(), receiverName, receiverPhone, shippingAddress);
+        pending.put(job.invoiceCode, job);
+        if (!queue.offer(job)) {
+            pending.remove(job.invoiceCode);
+            pendingUsers.remove(userId);
+            throw new ServiceBusyException("Antrian checkout penuh, silakan coba lagi");
+        }
+        return toResponse(job.invoiceCode, CheckoutStatus.QUEUED, null);
+    }
+
+    /**
+     * Status job yang masih di antrian / sedang diproses.
+     */
+    public Optional<CheckoutStatusResponse> findPending(String invoiceCode) {
+        CheckoutJob job = pending.get(invoiceCode);
+        return job == null ? Optional.empty() : Optional.of(toResponse(invoiceCode, job.status, null));
+    }
+
+    /**
+     * Status job yang gagal (tidak pernah menjadi order).
+     */
+    public Optional<CheckoutStatusResponse> findFailure(String invoiceCode) {
+        String message = failures.get(invoiceCode);
+        return message == null ? Optional.empty() : Optional.of(toResponse(invoiceCode, CheckoutStatus.FAILED, message));
+    }
+
+    // Helper methods
+
+    private void runWorker() {
+        List<CheckoutJob> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                CheckoutJob first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Async checkout worker error", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<CheckoutJob> batch) {
+        batch.forEach(job -> job.status = CheckoutStatus.PROCESSING);
+        try {
+            // Group commit: semua order di batch dalam satu transaksi
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::checkout));
+            batch.forEach(this::complete);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            log.debug("Checkout batch of {} rolled back ({}), retrying per job", batch.size(), e.getMessage());
+            for (CheckoutJob job : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> checkout(job));
+                    complete(job);
+                } catch (RuntimeException ex) {
+                    fail(job, ex);
+                }
+            }
+        }
+    }
+
+    private void checkout(CheckoutJob job) {
+        orderService.createOrderFromCart(job.userId, job.invoiceCode,
+                job.receiverName, job.receiverPhone, job.shippingAddress);
+    }
+
+    private void complete(CheckoutJob job) {
+        // Order sudah commit, polling berikutnya membaca dari database
+        pending.remove(job.invoiceCode);
+        pendingUsers.remove(job.userId);
+    }
+
+    private void fail(CheckoutJob job, RuntimeException e) {
+        boolean business = e instanceof IllegalArgumentException
+                || e instanceof InsufficientStockException
+                || e instanceof DataNotFoundException;
+        if (business) {
+            log.debug("Async checkout {} rejected: {}", job.invoiceCode, e.getMessage());
+        } else {
+            log.warn("Async checkout {} failed", job.invoiceCode, e);
+        }
+        failures.put(job.invoiceCode, business ? e.getMessage() : "Checkout gagal, silakan coba lagi");
+        pending.remove(job.invoiceCode);
+        pendingUsers.remove(job.userId);
+    }
+
+    private static CheckoutStatusResponse toResponse(String invoiceCode, CheckoutStatus status, String message) {
+        return CheckoutStatusResponse.builder()
+                .invoiceCode(invoiceCode)
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
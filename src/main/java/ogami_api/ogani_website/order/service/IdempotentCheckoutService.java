@@ -0,0 +1,191 @@
+package ogami_api.ogani_website.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.exception.DataAlreadyExistsException;
+import ogami_api.ogani_website.order.model.IdempotencyRecord;
+import ogami_api.ogani_website.order.model.Order;
+import ogami_api.ogani_website.order.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checkout dengan Idempotency-Key.
+ * Request pertama menjalankan checkout dan mencatat orderId di tabel idempotency_keys (dalam transaksi
+ * yang sama) dan di LRU cache. Retry dengan key yang sama langsung mengembalikan order tersebut.
+ * Duplikat yang datang bersamaan di node yang sama menunggu eksekusi yang sedang berjalan (single-flight),
+ * duplikat dari node lain tertahan oleh lock unique key di database.
+ * Record lebih tua dari idempotency.ttl-hours dihapus oleh job harian, setelah itu key boleh dipakai lagi.
+ */
+@Service
+@Slf4j
+public class IdempotentCheckoutService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final int PURGE_CHUNK_SIZE = 1000;
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlHours;
+    private final Map<String, CachedResult> cache;
+    private final Map<String, CompletableFuture<Order>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentCheckoutService(OrderService orderService,
+                                     IdempotencyRecordRepository idempotencyRecordRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${idempotency.cache-size:10000}") int cacheSize,
+                                     @Value("${idempotency.ttl-hours:24}") long ttlHours) {
+        this.orderService = orderService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlHours = ttlHours;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    private record CachedResult(Integer orderId, String requestHash) {
+    }
+
+    /**
+     * Checkout idempotent. Key yang sama dengan payload berbeda ditolak (409).
+     */
+    public Order createOrderFromCart(Integer userId, String idempotencyKey,
+                                     String receiverName, String receiverPhone, String shippingAddress) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key wajib diisi, maksimal " + MAX_KEY_LENGTH + " karakter");
+        }
+        String cacheKey = userId + ":" + idempotencyKey;
+        String requestHash = hash(receiverName, receiverPhone, shippingAddress);
+
+        CachedResult cached = cache.get(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<Order> execution = new CompletableFuture<>();
+        CompletableFuture<Order> running = inFlight.putIfAbsent(cacheKey, execution);
+        if (running != null) {
+            // Single-flight: tunggu hasil eksekusi pertama
+            try {
+                running.join();
+                // Entry cache bisa sudah ter-evict: ambil request hash yang tersimpan, bukan hash request ini
+                CachedResult stored = cache.get(cacheKey);
+                if (stored == null) {
+                    stored = remember(cacheKey, idempotencyRecordRepository
+                            .findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                            .orElseThrow(() -> new IllegalStateException("Idempotency record hilang: " + cacheKey)));
+                }
+                return replay(stored, requestHash);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            Order order = execute(userId, idempotencyKey, cacheKey, requestHash,
+                    receiverName, receiverPhone, shippingAddress);
+            execution.complete(order);
+            return order;
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, execution);
+        }
+    }
+
+    /**
+     * Retensi idempotency_keys: hapus record lebih tua dari TTL, per chunk (satu transaksi per chunk).
+     */
+    @Scheduled(cron = "${idempotency.purge-cron:0 15 3 * * *}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(ttlHours);
+        int total = 0;
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    idempotencyRecordRepository.deleteCreatedBefore(cutoff, PURGE_CHUNK_SIZE));
+            total += deleted != null ? deleted : 0;
+        } while (deleted != null && deleted == PURGE_CHUNK_SIZE);
+        if (total > 0) {
+            log.info("Purged {} idempotency keys older than {}", total, cutoff);
+        }
+    }
+
+    // Helper methods
+
+    private Order execute(Integer userId, String idempotencyKey, String cacheKey, String requestHash,
+                          String receiverName, String receiverPhone, String shippingAddress) {
+        var existing = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+        if (existing.isPresent()) {
+            return replay(remember(cacheKey, existing.get()), requestHash);
+        }
+
+        try {
+            Order order = transactionTemplate.execute(status -> {
+                // Klaim key dulu: request duplikat dari node lain menunggu lock unique key ini
+                IdempotencyRecord record = idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                        .userId(userId)
+                        .idempotencyKey(idempotencyKey)
+                        .requestHash(requestHash)
+                        .build());
+                Order created = orderService.createOrderFromCart(userId, receiverName, receiverPhone, shippingAddress);
+                record.setOrderId(created.getOrderId());
+                return created;
+            });
+            cache.put(cacheKey, new CachedResult(order.getOrderId(), requestHash));
+            return order;
+        } catch (DataIntegrityViolationException e) {
+            // Kalah race dengan node lain yang memakai key yang sama
+            log.debug("Idempotency-Key {} already claimed, replaying", cacheKey);
+            IdempotencyRecord record = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .orElseThrow(() -> e);
+            return replay(remember(cacheKey, record), requestHash);
+        }
+    }
+
+    private CachedResult remember(String cacheKey, IdempotencyRecord record) {
+        CachedResult result = new CachedResult(record.getOrderId(), record.getRequestHash());
+        cache.put(cacheKey, result);
+        return result;
+    }
+
+    private Order replay(CachedResult result, String requestHash) {
+        if (!result.requestHash().equals(requestHash)) {
+            throw new DataAlreadyExistsException("Idempotency-Key sudah dipakai untuk request checkout yang berbeda");
+        }
+        return orderService.getOrderById(result.orderId());
+    }
+
+    private static String hash(String... values) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String value : values) {
+                digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
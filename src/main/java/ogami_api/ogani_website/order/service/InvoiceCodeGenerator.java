@@ -0,0 +1,68 @@
+package ogami_api.ogani_website.order.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator invoice code ala Snowflake: 41 bit timestamp (ms sejak 2024-01-01) + 10 bit node id
+ * + 12 bit sequence per millisecond. Unik antar node selama node id berbeda, monotonic per node,
+ * dan bisa diurutkan (hex fixed width, jadi urutan string = urutan waktu).
+ * Lock-free: state (timestamp, sequence) disimpan dalam satu AtomicLong dan dinaikkan dengan CAS.
+ * Kalau sequence habis dalam satu millisecond (atau jam mundur), clock logis maju ke millisecond
+ * berikutnya, jadi tidak pernah menunggu dan tidak pernah duplikat.
+ */
+@Component
+public class InvoiceCodeGenerator {
+
+    static final long EPOCH = 1704067200000L;  // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final String PREFIX = "INV-";
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final long nodeId;
+    // (timestamp << SEQUENCE_BITS) | sequence dari id terakhir
+    private final AtomicLong state = new AtomicLong();
+
+    public InvoiceCodeGenerator(@Value("${invoice.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("invoice.node-id harus antara 0 dan " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Invoice code baru, format INV-{16 digit hex}.
+     */
+    public String nextCode() {
+        long id = nextId();
+        char[] chars = new char[PREFIX.length() + 16];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = HEX[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Id 64 bit baru (selalu lebih besar dari id sebelumnya di node ini).
+     */
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            next = Math.max(now << SEQUENCE_BITS, previous + 1);
+        } while (!state.compareAndSet(previous, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,108 @@
+package ogami_api.ogani_website.order.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Job arsip: order dengan status akhir (COMPLETED / CANCELLED) yang lebih tua dari after-days dipindah
+ * ke orders_archive / order_details_archive, supaya tabel orders (dan index-nya) hanya berisi working set.
+ * Setiap chunk = satu transaksi (copy lalu delete), jadi job bisa berhenti kapan saja dan run berikutnya
+ * melanjutkan dari order yang tersisa. INSERT IGNORE membuat copy ulang aman.
+ * Read by id / invoice code dan list order user (list, page, cursor, NDJSON) di OrderService ikut membaca tabel archive.
+ * Chunk diambil dengan SKIP LOCKED, butuh MySQL 8.0+ / MariaDB 10.6+.
+ */
+@Service
+@Slf4j
+public class OrderArchiveService {
+
+    private static final String SELECT_ARCHIVABLE_SQL = """
+            SELECT order_id FROM orders
+            WHERE order_status IN ('COMPLETED', 'CANCELLED') AND order_time < ?
+            ORDER BY order_id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String ORDER_COLUMNS = "order_id, invoice_code, user_id, total_price, order_status, order_time, "
+            + "receiver_name, receiver_phone, shipping_address";
+
+    private static final String DETAIL_COLUMNS = "detail_id, order_id, product_id, product_name, product_image, "
+            + "quantity, price_at_order, subtotal";
+
+    private static final String COPY_ORDERS_SQL = "INSERT IGNORE INTO orders_archive (" + ORDER_COLUMNS + ") "
+            + "SELECT " + ORDER_COLUMNS + " FROM orders WHERE order_id IN (%s)";
+
+    private static final String COPY_DETAILS_SQL = "INSERT IGNORE INTO order_details_archive (" + DETAIL_COLUMNS + ") "
+            + "SELECT " + DETAIL_COLUMNS + " FROM order_details WHERE order_id IN (%s)";
+
+    private static final String DELETE_DETAILS_SQL = "DELETE FROM order_details WHERE order_id IN (%s)";
+
+    private static final String DELETE_ORDERS_SQL = "DELETE FROM orders WHERE order_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int chunkSize;
+    private final Counter archivedOrders;
+
+    public OrderArchiveService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${order.archive.enabled:false}") boolean enabled,
+                               @Value("${order.archive.after-days:365}") int afterDays,
+                               @Value("${order.archive.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.chunkSize = chunkSize;
+        this.archivedOrders = Counter.builder("orders.archive.moved")
+                .description("Orders moved to orders_archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${order.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            archivedOrders.increment(moved);
+            total += moved;
+        } while (moved == chunkSize);
+        log.info("Archived {} orders older than {}", total, cutoff);
+    }
+
+    // Helper methods
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Integer> orderIds = jdbcTemplate.queryForList(SELECT_ARCHIVABLE_SQL, Integer.class, cutoff, chunkSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(orderIds.size(), "?"));
+        Object[] args = orderIds.toArray();
+
+        jdbcTemplate.update(String.format(COPY_ORDERS_SQL, placeholders), args);
+        jdbcTemplate.update(String.format(COPY_DETAILS_SQL, placeholders), args);
+        // Details dulu karena FK order_details -> orders
+        jdbcTemplate.update(String.format(DELETE_DETAILS_SQL, placeholders), args);
+        jdbcTemplate.update(String.format(DELETE_ORDERS_SQL, placeholders), args);
+        return orderIds.size();
+    }
+}
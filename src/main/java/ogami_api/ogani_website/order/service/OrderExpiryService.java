@@ -0,0 +1,125 @@
+package ogami_api.ogani_website.order.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sweeper untuk order PENDING yang tidak pernah dibayar.
+ * Order yang lebih tua dari TTL dibatalkan per chunk (urut index (order_status, order_time, order_id)),
+ * dan stoknya dikembalikan dengan satu UPDATE per product per chunk. Row yang sedang di-lock transaksi
+ * lain (misalnya admin sedang update) dilewati dengan SKIP LOCKED dan diambil di run berikutnya.
+ * SKIP LOCKED butuh MySQL 8.0+ / MariaDB 10.6+, jadi jangan aktifkan order.expiry.enabled di versi lama.
+ * Progress tersedia di metrics orders.expiry.* (actuator).
+ */
+@Service
+@Slf4j
+public class OrderExpiryService {
+
+    private static final String SELECT_EXPIRED_SQL = """
+            SELECT order_id FROM orders
+            WHERE order_status = 'PENDING' AND order_time < ?
+            ORDER BY order_status, order_time, order_id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String CANCEL_SQL =
+            "UPDATE orders SET order_status = 'CANCELLED' WHERE order_id IN (%s) AND order_status = 'PENDING'";
+
+    private final OrderService orderService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long ttlMinutes;
+    private final int chunkSize;
+
+    private final Counter cancelledOrders;
+    private final Counter releasedUnits;
+    private final Counter failedRuns;
+    private final Timer runTimer;
+
+    public OrderExpiryService(OrderService orderService,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${order.expiry.enabled:false}") boolean enabled,
+                              @Value("${order.expiry.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${order.expiry.chunk-size:200}") int chunkSize) {
+        this.orderService = orderService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.ttlMinutes = ttlMinutes;
+        this.chunkSize = chunkSize;
+        this.cancelledOrders = Counter.builder("orders.expiry.cancelled")
+                .description("PENDING orders cancelled by the expiry sweeper")
+                .register(meterRegistry);
+        this.releasedUnits = Counter.builder("orders.expiry.released.units")
+                .description("Stock units returned by the expiry sweeper")
+                .register(meterRegistry);
+        this.failedRuns = Counter.builder("orders.expiry.failures")
+                .description("Expiry sweeper runs that ended with an error")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("orders.expiry.run")
+                .description("Duration of one expiry sweeper run")
+                .register(meterRegistry);
+    }
+
+    private record ChunkResult(int cancelled, int units, boolean full) {
+    }
+
+    @Scheduled(fixedDelayString = "${order.expiry.interval-ms:60000}",
+            initialDelayString = "${order.expiry.interval-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        runTimer.record(this::sweepExpired);
+    }
+
+    // Helper methods
+
+    private void sweepExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(ttlMinutes);
+        int total = 0;
+        try {
+            ChunkResult result;
+            do {
+                // Satu transaksi per chunk supaya lock tidak dipegang lama
+                result = transactionTemplate.execute(status -> expireChunk(cutoff));
+                cancelledOrders.increment(result.cancelled());
+                releasedUnits.increment(result.units());
+                total += result.cancelled();
+            } while (result.full());
+        } catch (RuntimeException e) {
+            failedRuns.increment();
+            log.error("Order expiry sweep failed after {} orders", total, e);
+            return;
+        }
+        if (total > 0) {
+            log.info("Expired {} PENDING orders older than {}", total, cutoff);
+        }
+    }
+
+    private ChunkResult expireChunk(LocalDateTime cutoff) {
+        List<Integer> orderIds = jdbcTemplate.queryForList(SELECT_EXPIRED_SQL, Integer.class, cutoff, chunkSize);
+        if (orderIds.isEmpty()) {
+            return new ChunkResult(0, 0, false);
+        }
+        String placeholders = String.join(",", Collections.nCopies(orderIds.size(), "?"));
+        int cancelled = jdbcTemplate.update(String.format(CANCEL_SQL, placeholders), orderIds.toArray());
+        int units = orderService.releaseStock(orderIds);
+        return new ChunkResult(cancelled, units, orderIds.size() == chunkSize);
+    }
+}
@@ -0,0 +1,110 @@
+package ogami_api.ogani_website.order.service;
+
+import lombok.RequiredArgsConstructor;
+import ogami_api.ogani_website.common.CursorCodec;
+import ogami_api.ogani_website.common.CursorPage;
+import ogami_api.ogani_website.order.dto.OrderSearchCriteria;
+import ogami_api.ogani_website.order.dto.OrderSummaryResponse;
+import ogami_api.ogani_website.order.model.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Admin order search: kombinasi filter status, range order_time, prefix invoice, dan user,
+ * terurut (order_time desc, order_id desc) dengan keyset pagination.
+ * SQL dibangun dinamis supaya hanya kolom yang difilter masuk WHERE, sehingga MySQL bisa memakai
+ * index komposit (order_status, order_time, order_id) / (user_id, order_time, order_id) /
+ * (order_time, order_id) untuk filter dan urutan sekaligus, tanpa filesort.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderSearchService {
+
+    private static final String SELECT_SQL = """
+            SELECT o.order_id, o.invoice_code, o.user_id, o.order_status, o.order_time, o.receiver_name, o.total_price
+            FROM orders o""";
+
+    private static final RowMapper<OrderSummaryResponse> ROW_MAPPER = (rs, rowNum) -> OrderSummaryResponse.builder()
+            .orderId(rs.getInt("order_id"))
+            .invoiceCode(rs.getString("invoice_code"))
+            .userId(rs.getObject("user_id", Integer.class))
+            .orderStatus(OrderStatus.fromColumn(rs.getString("order_status")))
+            .orderTime(rs.getObject("order_time", LocalDateTime.class))
+            .receiverName(rs.getString("receiver_name"))
+            .totalPrice(rs.getBigDecimal("total_price"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    record SqlQuery(String sql, Object[] args) {
+    }
+
+    /**
+     * Satu halaman hasil search. Cursor null / kosong berarti halaman pertama.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummaryResponse> search(OrderSearchCriteria criteria, String cursor, int size) {
+        if (criteria.getFrom() != null && criteria.getTo() != null && !criteria.getFrom().isBefore(criteria.getTo())) {
+            throw new IllegalArgumentException("Parameter from harus sebelum to");
+        }
+        CursorCodec.TimeAndId after = (cursor == null || cursor.isBlank()) ? null : CursorCodec.decodeTimeAndId(cursor);
+
+        SqlQuery query = buildQuery(criteria, after, size + 1);
+        List<OrderSummaryResponse> rows = jdbcTemplate.query(query.sql(), ROW_MAPPER, query.args());
+        return CursorPage.of(rows, size, Function.identity(),
+                order -> CursorCodec.encodeTimeAndId(order.getOrderTime(), order.getOrderId()));
+    }
+
+    // Helper methods
+
+    static SqlQuery buildQuery(OrderSearchCriteria criteria, CursorCodec.TimeAndId after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        if (criteria.getStatus() != null) {
+            conditions.add("o.order_status = ?");
+            args.add(criteria.getStatus().name());
+        }
+        if (criteria.getUserId() != null) {
+            conditions.add("o.user_id = ?");
+            args.add(criteria.getUserId());
+        }
+        if (criteria.getFrom() != null) {
+            conditions.add("o.order_time >= ?");
+            args.add(criteria.getFrom());
+        }
+        if (criteria.getTo() != null) {
+            conditions.add("o.order_time < ?");
+            args.add(criteria.getTo());
+        }
+        if (criteria.getInvoicePrefix() != null && !criteria.getInvoicePrefix().isBlank()) {
+            conditions.add("o.invoice_code LIKE ?");
+            args.add(escapeLike(criteria.getInvoicePrefix().trim()) + "%");
+        }
+        if (after != null) {
+            conditions.add("(o.order_time < ? OR (o.order_time = ? AND o.order_id < ?))");
+            args.add(after.time());
+            args.add(after.time());
+            args.add(after.id());
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY o.order_time DESC, o.order_id DESC LIMIT ?");
+        args.add(limit);
+        return new SqlQuery(sql.toString(), args.toArray());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
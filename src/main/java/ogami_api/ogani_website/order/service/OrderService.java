@@ -1,26 +1,49 @@
 package ogami_api.ogani_website.order.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.RequiredArgsConstructor;
 import ogami_api.ogani_website.cart.model.Cart;
 import ogami_api.ogani_website.cart.repository.CartRepository;
+import ogami_api.ogani_website.cart.service.CartSummaryCache;
+import ogami_api.ogani_website.cart.store.CartStore;
 import ogami_api.ogani_website.exception.DataNotFoundException;
-import ogami_api.ogani_website.exception.InsufficientStockException;
+import ogami_api.ogani_website.order.dto.BulkStatusResponse;
 import ogami_api.ogani_website.order.model.Order;
-import ogami_api.ogani_website.order.model.OrderDetail;
 import ogami_api.ogani_website.order.model.OrderStatus;
+import ogami_api.ogani_website.order.repository.OrderArchiveRepository;
+import ogami_api.ogani_website.order.repository.OrderDetailRepository;
 import ogami_api.ogani_website.order.repository.OrderRepository;
 import ogami_api.ogani_website.product.model.Product;
 import ogami_api.ogani_website.product.service.ProductService;
 import ogami_api.ogani_website.user.repository.UserRepository;
+import ogami_api.ogani_website.common.CursorCodec;
+import ogami_api.ogani_website.common.NdjsonStreamer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * Service layer untuk Order.
@@ -32,78 +55,195 @@ import java.util.List;
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderDetailRepository orderDetailRepository;
     private final CartRepository cartRepository;
+    private final CartStore cartStore;
+    private final CartSummaryCache cartSummaryCache;
     private final UserRepository userRepository;
     private final ProductService productService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final JdbcTemplate jdbcTemplate;
+    private final InvoiceCodeGenerator invoiceCodeGenerator;
+    private final OrderArchiveRepository orderArchiveRepository;
+
+    // Read fallback ke orders_archive (lihat OrderArchiveService)
+    @Value("${order.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    private static final String INSERT_DETAIL_SQL =
+            "INSERT INTO order_details (order_id, product_id, product_name, product_image, quantity, price_at_order, subtotal) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int STATUS_CHUNK_SIZE = 500;
+
+    private static final String LOCK_ORDER_STATUS_SQL =
+            "SELECT order_id, order_status FROM orders WHERE order_id IN (%s) ORDER BY order_id FOR UPDATE";
+
+    private static final String BULK_UPDATE_STATUS_SQL =
+            "UPDATE orders SET order_status = ? WHERE order_id IN (%s) AND order_status IN (%s)";
+
+    private static final String ORDER_QUANTITIES_SQL = """
+            SELECT product_id, SUM(quantity) AS quantity
+            FROM order_details
+            WHERE order_id IN (%s) AND product_id IS NOT NULL
+            GROUP BY product_id
+            """;
+
+    // Satu row per order detail; row dari order yang sama selalu berurutan
+    private static final String STREAM_ORDERS_SQL = """
+            SELECT o.order_id, o.invoice_code, o.order_status, o.order_time, o.receiver_name,
+                   o.receiver_phone, o.shipping_address, o.total_price,
+                   d.detail_id, d.product_id, d.product_name, d.product_image, d.quantity, d.price_at_order, d.subtotal
+            FROM orders o
+            LEFT JOIN order_details d ON d.order_id = o.order_id
+            WHERE o.user_id = ?
+            ORDER BY o.order_time DESC, o.order_id DESC, d.detail_id
+            """;
+
+    // Sama dengan STREAM_ORDERS_SQL, ditambah order dari tabel archive
+    private static final String STREAM_ORDERS_WITH_ARCHIVE_SQL = """
+            SELECT o.order_id, o.invoice_code, o.order_status, o.order_time, o.receiver_name,
+                   o.receiver_phone, o.shipping_address, o.total_price,
+                   d.detail_id, d.product_id, d.product_name, d.product_image, d.quantity, d.price_at_order, d.subtotal
+            FROM orders o
+            LEFT JOIN order_details d ON d.order_id = o.order_id
+            WHERE o.user_id = ?
+            UNION ALL
+            SELECT o.order_id, o.invoice_code, o.order_status, o.order_time, o.receiver_name,
+                   o.receiver_phone, o.shipping_address, o.total_price,
+                   d.detail_id, d.product_id, d.product_name, d.product_image, d.quantity, d.price_at_order, d.subtotal
+            FROM orders_archive o
+            LEFT JOIN order_details_archive d ON d.order_id = o.order_id
+            WHERE o.user_id = ?
+            ORDER BY order_time DESC, order_id DESC, detail_id
+            """;
 
     /**
      * Get all orders untuk user tertentu.
+     * Semua method list me-return order dengan details sudah ter-load
+     * (query order + satu query details), jadi tidak ada lazy load per order di controller.
      */
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByUserId(Integer userId) {
-        return orderRepository.findByUser_UserId(userId);
+        List<Order> orders = withDetails(orderRepository.findByUser_UserId(userId));
+        if (!archiveEnabled) {
+            return orders;
+        }
+        List<Order> all = new ArrayList<>(orders);
+        all.addAll(orderArchiveRepository.findByUserId(userId));
+        return all;
     }
 
     /**
      * Get all orders untuk user tertentu with pagination.
+     * Kalau archive aktif, order arsip menyusul setelah semua order aktif (orderTime desc),
+     * dan totalElements mencakup keduanya.
      */
+    @Transactional(readOnly = true)
     public Page<Order> getOrdersByUserId(Integer userId, Pageable pageable) {
-        return orderRepository.findByUser_UserId(userId, pageable);
+        Page<Order> page = orderRepository.findByUser_UserId(userId, pageable);
+        withDetails(page.getContent());
+        if (!archiveEnabled) {
+            return page;
+        }
+        long archived = orderArchiveRepository.countByUserId(userId);
+        if (archived == 0 || page.getContent().size() == pageable.getPageSize()) {
+            return new PageImpl<>(page.getContent(), pageable, page.getTotalElements() + archived);
+        }
+        // Halaman melewati order aktif terakhir: sisa halaman diisi dari archive
+        List<Order> content = new ArrayList<>(page.getContent());
+        long archiveOffset = Math.max(0, pageable.getOffset() - page.getTotalElements());
+        content.addAll(orderArchiveRepository.findByUserId(userId, archiveOffset, pageable.getPageSize() - content.size()));
+        return new PageImpl<>(content, pageable, page.getTotalElements() + archived);
+    }
+
+    /**
+     * Get orders user tertentu dengan keyset pagination (orderTime desc, orderId desc).
+     * Cursor null berarti halaman pertama.
+     */
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByUserIdBefore(Integer userId, CursorCodec.TimeAndId cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<Order> orders = cursor == null
+                ? withDetails(orderRepository.findLatestByUser(userId, pageable))
+                : withDetails(orderRepository.findByUserBefore(userId, cursor.time(), cursor.id(), pageable));
+        if (!archiveEnabled) {
+            return orders;
+        }
+        // Seek yang sama di archive, lalu merge kedua hasil dengan urutan (orderTime desc, orderId desc)
+        List<Order> merged = new ArrayList<>(orders);
+        merged.addAll(orderArchiveRepository.findByUserBefore(userId,
+                cursor != null ? cursor.time() : null, cursor != null ? cursor.id() : null, limit));
+        merged.sort(Comparator.comparing(Order::getOrderTime).thenComparing(Order::getOrderId).reversed());
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
     }
 
     /**
-     * Get order by ID.
+     * Stream semua order user sebagai NDJSON (satu order + items per baris) langsung dari JDBC cursor.
+     * Field sama dengan OrderResponse.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamOrdersByUserId(Integer userId, OutputStream out) throws IOException {
+        if (archiveEnabled) {
+            ndjsonStreamer.stream(out, STREAM_ORDERS_WITH_ARCHIVE_SQL, new Object[]{userId, userId}, new OrderRowHandler());
+            return;
+        }
+        ndjsonStreamer.stream(out, STREAM_ORDERS_SQL, new Object[]{userId}, new OrderRowHandler());
+    }
+
+    /**
+     * Get order by ID (beserta details). Kalau tidak ada di tabel orders, dicari di archive
+     * (order arsip bersifat read-only).
+     */
+    @Transactional(readOnly = true)
     public Order getOrderById(Integer orderId) {
-        return orderRepository.findById(orderId)
+        return orderRepository.findWithDetailsByOrderId(orderId)
+                .or(() -> archiveEnabled ? orderArchiveRepository.findById(orderId) : Optional.empty())
                 .orElseThrow(() -> new DataNotFoundException("Order", orderId));
     }
 
     /**
      * Get order by invoice code.
      */
+    @Transactional(readOnly = true)
     public Order getOrderByInvoiceCode(String invoiceCode) {
         return orderRepository.findByInvoiceCode(invoiceCode)
+                .or(() -> archiveEnabled ? orderArchiveRepository.findByInvoiceCode(invoiceCode) : Optional.empty())
                 .orElseThrow(() -> new DataNotFoundException("Order dengan invoice " + invoiceCode + " tidak ditemukan"));
     }
 
     /**
-     * Get orders by status.
+     * Create order dari cart (checkout process).
+     * Jumlah statement konstan berapapun jumlah item: load cart + product (fetch join), lock + batch
+     * update stok, insert order, batch insert details, reload details, delete cart.
      */
-    public List<Order> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByOrderStatus(status);
+    public Order createOrderFromCart(Integer userId, String receiverName, String receiverPhone, String shippingAddress) {
+        return createOrderFromCart(userId, invoiceCodeGenerator.nextCode(), receiverName, receiverPhone, shippingAddress);
     }
 
     /**
-     * Create order dari cart (checkout process).
+     * Checkout dengan invoice code yang sudah di-generate sebelumnya (checkout async).
      */
-    public Order createOrderFromCart(Integer userId, String receiverName, String receiverPhone, String shippingAddress) {
-        // Validasi user
-        var user = userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("User", userId));
+    public Order createOrderFromCart(Integer userId, String invoiceCode,
+                                     String receiverName, String receiverPhone, String shippingAddress) {
+        // userId berasal dari JWT, cukup reference tanpa SELECT users
+        var user = userRepository.getReferenceById(userId);
 
-        // Get cart items
-        List<Cart> cartItems = cartRepository.findByUser_UserId(userId);
+        // Flush perubahan cart yang masih di CartStore dan tahan mutasi cart user sampai transaksi selesai,
+        // jadi checkout membaca snapshot cart yang konsisten
+        cartStore.lockForWrite(userId);
+
+        // Get cart items beserta product dalam satu query
+        List<Cart> cartItems = cartRepository.findWithProductByUserId(userId);
 
         if (cartItems.isEmpty()) {
             throw new IllegalArgumentException("Cart kosong, tidak bisa checkout");
         }
 
-        // Validasi stock untuk semua items
-        for (Cart cartItem : cartItems) {
-            Product product = cartItem.getProduct();
-            if (product.getStock() < cartItem.getQuantity()) {
-                throw new InsufficientStockException(
-                        product.getProductName(),
-                        cartItem.getQuantity(),
-                        product.getStock()
-                );
-            }
-        }
-
         // Create order
         Order order = Order.builder()
                 .user(user)
-                .invoiceCode(generateInvoiceCode())
+                .invoiceCode(invoiceCode)
                 .orderStatus(OrderStatus.PENDING)
                 .orderTime(LocalDateTime.now())
                 .receiverName(receiverName)
@@ -111,70 +251,232 @@ public class OrderService {
                 .shippingAddress(shippingAddress)
                 .build();
 
-        // Create order details dan calculate total
-        List<OrderDetail> orderDetails = new ArrayList<>();
+        // Hitung total dan siapkan row order details
+        List<Object[]> detailRows = new ArrayList<>(cartItems.size());
+        Map<Integer, Integer> quantities = new HashMap<>();
         BigDecimal totalPrice = BigDecimal.ZERO;
 
         for (Cart cartItem : cartItems) {
             Product product = cartItem.getProduct();
             BigDecimal subtotal = product.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity()));
 
-            OrderDetail detail = OrderDetail.builder()
-                    .order(order)
-                    .product(product)
-                    .quantity(cartItem.getQuantity())
-                    .priceAtOrder(product.getPrice())  // Price snapshot
-                    .subtotal(subtotal)
-                    .build();
-
-            orderDetails.add(detail);
+            // Snapshot harga, nama, dan gambar product
+            detailRows.add(new Object[]{null, product.getProductId(), product.getProductName(), product.getProductImage(),
+                    cartItem.getQuantity(), product.getPrice(), subtotal});
             totalPrice = totalPrice.add(subtotal);
-
-            // Reduce stock
-            productService.reduceStock(product.getProductId(), cartItem.getQuantity());
+            quantities.merge(product.getProductId(), cartItem.getQuantity(), Integer::sum);
         }
 
-        order.setOrderDetails(orderDetails);
+        // Lock (urut productId) + validasi + reduce stock semua items dalam satu batch
+        productService.reduceStock(quantities);
+
+        order.setOrderDetails(new ArrayList<>());
         order.setTotalPrice(totalPrice);
 
         // Save order
         Order savedOrder = orderRepository.save(order);
 
+        // IDENTITY id mematikan JDBC batching Hibernate, jadi details di-insert lewat JdbcTemplate batch
+        detailRows.forEach(row -> row[0] = savedOrder.getOrderId());
+        jdbcTemplate.batchUpdate(INSERT_DETAIL_SQL, detailRows);
+        // Reload details yang baru di-insert (snapshot product ada di row order_details)
+        savedOrder.getOrderDetails().addAll(orderDetailRepository.findByOrder_OrderId(savedOrder.getOrderId()));
+
         // Clear cart after successful order
+        long token = cartSummaryCache.begin(userId);
         cartRepository.deleteByUser_UserId(userId);
+        cartSummaryCache.invalidate(userId, token);
 
         return savedOrder;
     }
 
     /**
-     * Update order status (admin function).
+     * Update order status (admin function). Transisi harus valid menurut OrderStatus.
      */
     public Order updateOrderStatus(Integer orderId, OrderStatus newStatus) {
-        Order order = getOrderById(orderId);
+        Order order = getLockedOrder(orderId);
+        if (order.getOrderStatus() == newStatus) {
+            return order;
+        }
+        if (!order.getOrderStatus().canTransitionTo(newStatus)) {
+            throw new IllegalArgumentException("Status order tidak bisa diubah dari "
+                    + order.getOrderStatus() + " ke " + newStatus);
+        }
+        if (newStatus == OrderStatus.CANCELLED) {
+            releaseStock(List.of(orderId));
+        }
         order.setOrderStatus(newStatus);
         return orderRepository.save(order);
     }
 
     /**
-     * Cancel order (only if status is PENDING).
+     * Bulk update status tanpa load entity. Per chunk: lock row (urut orderId) dan baca status saat ini,
+     * lalu satu UPDATE ... WHERE order_id IN (...) AND order_status IN (status asal yang valid).
+     * Order yang tidak ada / transisinya tidak valid dilewati dan dilaporkan per id.
+     * Target CANCELLED juga mengembalikan stok order yang ter-update.
+     */
+    public BulkStatusResponse updateOrderStatusBulk(List<Integer> orderIds, OrderStatus newStatus) {
+        List<Integer> ids = orderIds.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        Object[] sources = OrderStatus.sourcesOf(newStatus).stream().map(OrderStatus::name).toArray();
+        Map<Integer, BulkStatusResponse.Result> results = new HashMap<>();
+        int updated = 0;
+
+        for (int start = 0; start < ids.size(); start += STATUS_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(start, Math.min(start + STATUS_CHUNK_SIZE, ids.size()));
+            Map<Integer, OrderStatus> current = new HashMap<>();
+            jdbcTemplate.query(String.format(LOCK_ORDER_STATUS_SQL, placeholders(chunk.size())),
+                    (RowCallbackHandler) rs -> current.put(rs.getInt("order_id"),
+                            OrderStatus.fromColumn(rs.getString("order_status"))),
+                    chunk.toArray());
+
+            List<Integer> eligible = new ArrayList<>();
+            for (Integer id : chunk) {
+                OrderStatus previous = current.get(id);
+                BulkStatusResponse.Outcome outcome;
+                if (!current.containsKey(id)) {
+                    outcome = BulkStatusResponse.Outcome.NOT_FOUND;
+                } else if (previous == newStatus) {
+                    outcome = BulkStatusResponse.Outcome.UNCHANGED;
+                } else if (previous != null && previous.canTransitionTo(newStatus)) {
+                    outcome = BulkStatusResponse.Outcome.UPDATED;
+                    eligible.add(id);
+                } else {
+                    outcome = BulkStatusResponse.Outcome.INVALID_TRANSITION;
+                }
+                results.put(id, new BulkStatusResponse.Result(id, outcome, previous));
+            }
+
+            if (!eligible.isEmpty()) {
+                List<Object> args = new ArrayList<>(eligible.size() + sources.length + 1);
+                args.add(newStatus.name());
+                args.addAll(eligible);
+                args.addAll(List.of(sources));
+                updated += jdbcTemplate.update(String.format(BULK_UPDATE_STATUS_SQL,
+                        placeholders(eligible.size()), placeholders(sources.length)), args.toArray());
+                if (newStatus == OrderStatus.CANCELLED) {
+                    releaseStock(eligible);
+                }
+            }
+        }
+
+        return BulkStatusResponse.builder()
+                .status(newStatus)
+                .updated(updated)
+                .results(orderIds.stream().filter(Objects::nonNull).distinct().map(results::get).toList())
+                .build();
+    }
+
+    /**
+     * Cancel order (only if status is PENDING). Stok item dikembalikan.
      */
     public Order cancelOrder(Integer orderId) {
-        Order order = getOrderById(orderId);
+        Order order = getLockedOrder(orderId);
 
         if (order.getOrderStatus() != OrderStatus.PENDING) {
             throw new IllegalArgumentException("Hanya order dengan status PENDING yang bisa dibatalkan");
         }
 
+        releaseStock(List.of(orderId));
         order.setOrderStatus(OrderStatus.CANCELLED);
         return orderRepository.save(order);
     }
 
     /**
-     * Generate unique invoice code.
-     * Format: INV-{HEX_TIMESTAMP}
+     * Kembalikan stok semua item dari order yang dibatalkan: quantity dijumlah per product di database,
+     * lalu satu UPDATE per product (bukan per baris detail). Return total unit yang dikembalikan.
+     * Caller bertanggung jawab memastikan order tersebut memang baru saja dibatalkan.
+     */
+    public int releaseStock(List<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        jdbcTemplate.query(String.format(ORDER_QUANTITIES_SQL, placeholders(orderIds.size())),
+                (RowCallbackHandler) rs -> quantities.put(rs.getInt("product_id"), rs.getInt("quantity")),
+                orderIds.toArray());
+        productService.restoreStock(quantities);
+        return quantities.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // Helper methods
+
+    /**
+     * Order dari tabel orders saja (order arsip sudah final) dengan row ter-lock sampai transaksi selesai. Cancel / update status yang
+     * bersamaan (termasuk expiry dan bulk) menunggu dan membaca status terbaru, jadi stok tidak
+     * di-release dua kali.
      */
-    private String generateInvoiceCode() {
-        long timestamp = System.currentTimeMillis();
-        return "INV-" + Long.toHexString(timestamp).toUpperCase();
+    private Order getLockedOrder(Integer orderId) {
+        orderRepository.findForUpdateByOrderId(orderId)
+                .orElseThrow(() -> new DataNotFoundException("Order", orderId));
+        // Entity yang sama dari persistence context, details di-load sekalian
+        return orderRepository.findWithDetailsByOrderId(orderId)
+                .orElseThrow(() -> new DataNotFoundException("Order", orderId));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Load details untuk semua order sekaligus. Order hasil query pertama masih managed,
+     * jadi collection orderDetails-nya ikut ter-initialize oleh fetch join ini.
+     */
+    private List<Order> withDetails(List<Order> orders) {
+        if (!orders.isEmpty()) {
+            orderRepository.fetchDetailsByOrderIdIn(orders.stream().map(Order::getOrderId).toList());
+        }
+        return orders;
+    }
+
+    /**
+     * Gabungkan row order_details menjadi satu JSON object per order.
+     */
+    private static class OrderRowHandler implements NdjsonStreamer.RowHandler {
+
+        private Integer currentOrderId;
+
+        @Override
+        public void onRow(ResultSet rs, JsonGenerator json) throws SQLException, IOException {
+            int orderId = rs.getInt("order_id");
+            if (currentOrderId == null || currentOrderId != orderId) {
+                onComplete(json);
+                currentOrderId = orderId;
+                json.writeStartObject();
+                json.writeNumberField("orderId", orderId);
+                NdjsonStreamer.writeString(json, "invoiceCode", rs, "invoice_code");
+                // Kolom enum di DB lowercase, response API memakai nama OrderStatus
+                OrderStatus status = OrderStatus.fromColumn(rs.getString("order_status"));
+                json.writeStringField("orderStatus", status != null ? status.name() : null);
+                NdjsonStreamer.writeDateTime(json, "orderTime", rs, "order_time");
+                NdjsonStreamer.writeString(json, "receiverName", rs, "receiver_name");
+                NdjsonStreamer.writeString(json, "receiverPhone", rs, "receiver_phone");
+                NdjsonStreamer.writeString(json, "shippingAddress", rs, "shipping_address");
+                NdjsonStreamer.writeDecimal(json, "totalPrice", rs, "total_price");
+                json.writeArrayFieldStart("items");
+            }
+
+            rs.getInt("detail_id");
+            if (rs.wasNull()) {
+                return;  // Order tanpa detail
+            }
+            json.writeStartObject();
+            NdjsonStreamer.writeInt(json, "detailId", rs, "detail_id");
+            NdjsonStreamer.writeInt(json, "productId", rs, "product_id");
+            NdjsonStreamer.writeString(json, "productName", rs, "product_name");
+            NdjsonStreamer.writeString(json, "productImage", rs, "product_image");
+            NdjsonStreamer.writeInt(json, "quantity", rs, "quantity");
+            NdjsonStreamer.writeDecimal(json, "priceAtOrder", rs, "price_at_order");
+            NdjsonStreamer.writeDecimal(json, "subtotal", rs, "subtotal");
+            json.writeEndObject();
+        }
+
+        @Override
+        public void onComplete(JsonGenerator json) throws IOException {
+            if (currentOrderId != null) {
+                json.writeEndArray();
+                json.writeEndObject();
+                currentOrderId = null;
+            }
+        }
     }
 }
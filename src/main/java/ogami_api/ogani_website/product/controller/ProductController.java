@@ -5,10 +5,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import ogami_api.ogani_website.category.model.Category;
+import ogami_api.ogani_website.common.CursorCodec;
+import ogami_api.ogani_website.common.CursorPage;
 import ogami_api.ogani_website.product.dto.BulkProductRequest;
+import ogami_api.ogani_website.product.dto.ProductBrowseResponse;
 import ogami_api.ogani_website.product.dto.ProductRequest;
 import ogami_api.ogani_website.product.dto.ProductResponse;
+import ogami_api.ogani_website.product.dto.SuggestionResponse;
 import ogami_api.ogani_website.product.model.Product;
+import ogami_api.ogani_website.product.search.ProductSuggestService;
 import ogami_api.ogani_website.product.service.ProductService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -16,10 +21,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -32,31 +41,48 @@ import java.util.stream.Collectors;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductSuggestService productSuggestService;
 
     /**
      * GET /api/products - Get all products with optional pagination.
      * Params: page (default 0), size (default 10), sort (default productId,asc)
+     * Cursor mode: cursor (kosong untuk halaman pertama) + size, seek berdasarkan productId.
      */
     @GetMapping
     public ResponseEntity<?> getAllProducts(
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer size,
-            @RequestParam(required = false) String sort) {
-        
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor) {
+
+        // Cursor mode: tanpa OFFSET dan tanpa COUNT query
+        if (cursor != null) {
+            int pageSize = (size != null && size > 0 && size <= 100) ? size : 10;
+            Integer afterId = cursor.isBlank() ? 0 : CursorCodec.decodeId(cursor);
+            List<ProductResponse> products = productService.getProductsAfter(afterId, pageSize + 1);
+            return ResponseEntity.ok(CursorPage.of(products, pageSize, Function.identity(),
+                    product -> CursorCodec.encodeId(product.getProductId())));
+        }
+
         // If pagination params provided, return paginated response
         if (page != null && size != null) {
             Pageable pageable = createPageable(page, size, sort);
-            Page<Product> productPage = productService.getAllProducts(pageable);
-            Page<ProductResponse> responsePage = productPage.map(this::toResponse);
-            return ResponseEntity.ok(responsePage);
+            return ResponseEntity.ok(productService.getAllProducts(pageable));
         }
         
         // Otherwise return all products
-        List<Product> products = productService.getAllProducts();
-        List<ProductResponse> response = products.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(productService.getAllProducts());
+    }
+
+    /**
+     * GET /api/products dengan Accept: application/x-ndjson - Stream semua product, satu JSON per baris.
+     * Memory konstan berapapun jumlah product (JDBC cursor, tanpa load entity).
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(productService::streamAllProducts);
     }
 
     /**
@@ -69,15 +95,53 @@ public class ProductController {
     }
 
     /**
-     * GET /api/products/search?q=keyword - Search products.
+     * GET /api/products/search?q=keyword - Search products (ranked by relevance).
+     * Optional params: page, size, fuzzy (toleran typo, default false)
      */
     @GetMapping("/search")
-    public ResponseEntity<List<ProductResponse>> searchProducts(@RequestParam String q) {
-        List<Product> products = productService.searchProducts(q);
-        List<ProductResponse> response = products.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+
+        // Hasil search sudah terurut berdasarkan relevansi, jadi pageable tanpa sort
+        if (page != null && size != null) {
+            Pageable pageable = createPageable(page, size, null);
+            Page<ProductResponse> productPage = productService.searchProducts(q, fuzzy,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+            return ResponseEntity.ok(productPage);
+        }
+
+        return ResponseEntity.ok(productService.searchProducts(q, fuzzy));
+    }
+
+    /**
+     * GET /api/products/suggest?prefix=app - Autocomplete nama product dan category.
+     * Params: limit (default 10, max 20). Dilayani dari memory, tanpa query database.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productSuggestService.suggest(prefix, limit));
+    }
+
+    /**
+     * GET /api/products/browse - Browse katalog dengan filter dan facet count untuk sidebar.
+     * Params: categoryId (boleh lebih dari satu), inStock, priceRange (index bucket, boleh lebih dari satu),
+     * page (default 0), size (default 20). Nilai di dalam satu filter di-OR, antar filter di-AND.
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<ProductBrowseResponse> browseProducts(
+            @RequestParam(required = false) Set<Integer> categoryId,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) Set<Integer> priceRange,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = (size > 0 && size <= 100) ? size : 20;
+        return ResponseEntity.ok(productService.browseProducts(categoryId, inStock, priceRange, pageNumber, pageSize));
     }
 
     /**
@@ -85,11 +149,7 @@ public class ProductController {
      */
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<List<ProductResponse>> getProductsByCategory(@PathVariable Integer categoryId) {
-        List<Product> products = productService.getProductsByCategory(categoryId);
-        List<ProductResponse> response = products.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(productService.getProductsByCategory(categoryId));
     }
 
     /**
@@ -97,11 +157,7 @@ public class ProductController {
      */
     @GetMapping("/available")
     public ResponseEntity<List<ProductResponse>> getAvailableProducts() {
-        List<Product> products = productService.getAvailableProducts();
-        List<ProductResponse> response = products.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(productService.getAvailableProducts());
     }
 
     /**
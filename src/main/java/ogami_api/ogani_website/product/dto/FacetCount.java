@@ -0,0 +1,20 @@
+package ogami_api.ogani_website.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO untuk satu nilai facet (category, stok, atau price bucket) beserta jumlah product-nya.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetCount {
+
+    private String value;   // categoryId / "true" / index bucket, dipakai sebagai parameter filter
+    private String label;
+    private long count;
+}
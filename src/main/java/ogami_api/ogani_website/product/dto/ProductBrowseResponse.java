@@ -0,0 +1,26 @@
+package ogami_api.ogani_website.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO untuk response browse katalog: satu halaman product + facet count untuk sidebar.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBrowseResponse {
+
+    private List<ProductResponse> products;
+    private long totalElements;
+    private int page;
+    private int size;
+    private List<FacetCount> categories;
+    private List<FacetCount> stock;
+    private List<FacetCount> priceRanges;
+}
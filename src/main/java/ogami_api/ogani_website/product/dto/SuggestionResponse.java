@@ -0,0 +1,20 @@
+package ogami_api.ogani_website.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO untuk autocomplete suggestion (product atau category).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionResponse {
+
+    private String text;
+    private String type;  // PRODUCT atau CATEGORY
+    private Integer id;
+}
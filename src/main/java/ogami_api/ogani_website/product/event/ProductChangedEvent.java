@@ -0,0 +1,41 @@
+package ogami_api.ogani_website.product.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ogami_api.ogani_website.product.model.Product;
+
+/**
+ * Event yang dipublish oleh ProductService setiap kali product berubah.
+ * Dipakai in-memory index supaya tetap sinkron dengan tabel products.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType type;
+    private final Integer productId;
+    private final Product product;  // null untuk DELETED
+    private final boolean priceChanged;
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(ChangeType.CREATED, product.getProductId(), product, false);
+    }
+
+    public static ProductChangedEvent updated(Product product, boolean priceChanged) {
+        return new ProductChangedEvent(ChangeType.UPDATED, product.getProductId(), product, priceChanged);
+    }
+
+    public static ProductChangedEvent deleted(Integer productId) {
+        return new ProductChangedEvent(ChangeType.DELETED, productId, null, false);
+    }
+
+    public boolean isDeleted() {
+        return type == ChangeType.DELETED;
+    }
+}
@@ -0,0 +1,16 @@
+package ogami_api.ogani_website.product.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Event yang dipublish ketika stok product berubah karena transaksi (checkout, restock, dll).
+ * Delta negatif berarti stok berkurang (terjual).
+ */
+@Getter
+@RequiredArgsConstructor
+public class StockChangedEvent {
+
+    private final Integer productId;
+    private final int delta;
+}
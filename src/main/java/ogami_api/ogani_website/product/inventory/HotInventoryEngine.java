@@ -0,0 +1,215 @@
+package ogami_api.ogani_website.product.inventory;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.product.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Inventory engine untuk product "hot" (flash sale / promo).
+ * Stok tersedia product hot dipegang di memory oleh StripedStockCounter, sehingga checkout tidak
+ * antri di row products yang sama. Setiap reservasi yang commit dicatat di tabel inventory_journal
+ * (insert-only, dalam transaksi checkout), lalu di-flush berkala ke products.stock.
+ * Stok sebenarnya = products.stock + SUM(inventory_journal.delta), jadi restart/crash selalu
+ * bisa di-recover dari database. Hanya untuk deployment single instance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotInventoryEngine {
+
+    private static final String INSERT_JOURNAL_SQL = "INSERT INTO inventory_journal (product_id, delta) VALUES (?, ?)";
+
+    private static final String LOAD_AVAILABLE_SQL = """
+            SELECT p.product_id, p.stock + COALESCE(SUM(j.delta), 0) AS available
+            FROM products p
+            LEFT JOIN inventory_journal j ON j.product_id = p.product_id
+            WHERE p.product_id = ?
+            GROUP BY p.product_id, p.stock
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.hot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.hot.product-ids:}")
+    private List<Integer> productIds;
+
+    @Value("${inventory.hot.stripes:8}")
+    private int stripes;
+
+    private final Map<Integer, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    // Reservasi yang belum commit/rollback, dikurangkan saat reload supaya tidak double count
+    private final Map<Integer, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Apply sisa journal dari run sebelumnya, lalu load counter product hot.
+     * Tidak menyentuh database sama sekali kalau fitur tidak aktif (tabel journal mungkin belum ada).
+     * Jalan lebih dulu dari listener lain, jadi index yang membaca available() melihat counter yang sudah ter-load.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        flushJournal();
+        for (Integer productId : productIds) {
+            inFlight.putIfAbsent(productId, new AtomicInteger());
+            reload(productId);
+        }
+        log.info("Hot inventory enabled for {} products", counters.size());
+    }
+
+    public boolean isHot(Integer productId) {
+        return enabled && counters.containsKey(productId);
+    }
+
+    /**
+     * Stok tersedia product hot (dari memory).
+     */
+    public int available(Integer productId) {
+        StripedStockCounter counter = counters.get(productId);
+        return counter != null ? counter.available() : 0;
+    }
+
+    /**
+     * Reservasi stok product hot dalam transaksi yang sedang berjalan.
+     * Return false kalau stok tidak cukup. Kalau transaksi rollback, stok otomatis dikembalikan.
+     */
+    public boolean reserve(Integer productId, int quantity) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter == null || !counter.tryReserve(quantity)) {
+            return false;
+        }
+        AtomicInteger pending = inFlight.get(productId);
+        pending.addAndGet(quantity);
+        onCompletion(committed -> {
+            pending.addAndGet(-quantity);
+            if (!committed) {
+                counter.release(quantity);
+            }
+        });
+        jdbcTemplate.update(INSERT_JOURNAL_SQL, productId, -quantity);
+        return true;
+    }
+
+    /**
+     * Kembalikan stok product hot (retur/cancel). Counter baru bertambah setelah transaksi commit.
+     */
+    public void release(Integer productId, int quantity) {
+        StripedStockCounter counter = counters.get(productId);
+        jdbcTemplate.update(INSERT_JOURNAL_SQL, productId, quantity);
+        onCompletion(committed -> {
+            if (committed && counter != null) {
+                counter.release(quantity);
+            }
+        });
+    }
+
+    /**
+     * Stok diubah admin: reload counter dari database setelah commit (sebelum listener index lain).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!isHot(event.getProductId())) {
+            return;
+        }
+        if (event.isDeleted()) {
+            counters.remove(event.getProductId());
+            return;
+        }
+        reload(event.getProductId());
+    }
+
+    /**
+     * Write-behind: apply net delta journal ke products.stock.
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot.flush-interval-ms:1000}")
+    public void flush() {
+        if (enabled) {
+            flushJournal();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Helper methods
+
+    private void reload(Integer productId) {
+        List<Integer> available = jdbcTemplate.query(LOAD_AVAILABLE_SQL,
+                (rs, rowNum) -> rs.getInt("available"), productId);
+        if (available.isEmpty()) {
+            counters.remove(productId);
+            return;
+        }
+        int value = available.get(0) - inFlight.get(productId).get();
+        counters.computeIfAbsent(productId, id -> new StripedStockCounter(stripes, 0)).set(value);
+    }
+
+    /**
+     * Row journal di-lock (FOR UPDATE) sebelum dijumlah, jadi row yang di-delete
+     * persis sama dengan yang di-apply ke products.
+     */
+    private void flushJournal() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(journal_id) FROM inventory_journal", Long.class);
+            if (maxId == null) {
+                return;
+            }
+            Map<Integer, Integer> deltas = new TreeMap<>();
+            jdbcTemplate.query("SELECT product_id, delta FROM inventory_journal WHERE journal_id <= ? FOR UPDATE",
+                    (RowCallbackHandler) rs -> deltas.merge(rs.getInt("product_id"), rs.getInt("delta"), Integer::sum),
+                    maxId);
+
+            List<Object[]> args = new ArrayList<>(deltas.size());
+            deltas.forEach((productId, delta) -> {
+                if (delta != 0) {
+                    args.add(new Object[]{delta, productId});
+                }
+            });
+            jdbcTemplate.batchUpdate("UPDATE products SET stock = stock + ? WHERE product_id = ?", args);
+            jdbcTemplate.update("DELETE FROM inventory_journal WHERE journal_id <= ?", maxId);
+        });
+    }
+
+    private static void onCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package ogami_api.ogani_website.product.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counter stok yang dipecah ke beberapa stripe supaya reservasi concurrent tidak berebut satu CAS.
+ * Fast path: CAS decrement di stripe yang stoknya cukup. Kalau tidak ada satu stripe pun yang cukup,
+ * slow path mengumpulkan semua stripe di bawah lock lalu membagi ulang sisanya.
+ * Stripe tidak pernah negatif, jadi reservasi tidak pernah melebihi stok.
+ */
+public class StripedStockCounter {
+
+    private final AtomicIntegerArray stripes;
+    private final Object rebalanceLock = new Object();
+
+    public StripedStockCounter(int stripeCount, int initial) {
+        this.stripes = new AtomicIntegerArray(Math.max(1, stripeCount));
+        set(initial);
+    }
+
+    /**
+     * Reservasi quantity. Return false kalau total stok tidak cukup.
+     */
+    public boolean tryReserve(int quantity) {
+        int n = stripes.length();
+        int start = ThreadLocalRandom.current().nextInt(n);
+        for (int i = 0; i < n; i++) {
+            if (tryTake((start + i) % n, quantity)) {
+                return true;
+            }
+        }
+        return reserveSlow(quantity);
+    }
+
+    /**
+     * Kembalikan stok (rollback reservasi atau retur).
+     */
+    public void release(int quantity) {
+        stripes.addAndGet(ThreadLocalRandom.current().nextInt(stripes.length()), quantity);
+    }
+
+    /**
+     * Total stok tersedia (snapshot, bisa sedikit tertinggal saat ada reservasi concurrent).
+     */
+    public int available() {
+        int total = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            total += stripes.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Set ulang total stok (reload dari database).
+     */
+    public void set(int value) {
+        synchronized (rebalanceLock) {
+            drain();
+            spread(Math.max(0, value));
+        }
+    }
+
+    // Helper methods
+
+    private boolean tryTake(int index, int quantity) {
+        int current;
+        do {
+            current = stripes.get(index);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!stripes.compareAndSet(index, current, current - quantity));
+        return true;
+    }
+
+    private boolean reserveSlow(int quantity) {
+        synchronized (rebalanceLock) {
+            int total = drain();
+            if (total < quantity) {
+                spread(total);
+                return false;
+            }
+            spread(total - quantity);
+            return true;
+        }
+    }
+
+    private int drain() {
+        int total = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            total += stripes.getAndSet(i, 0);
+        }
+        return total;
+    }
+
+    private void spread(int total) {
+        int n = stripes.length();
+        for (int i = 0; i < n; i++) {
+            stripes.addAndGet(i, total / n + (i < total % n ? 1 : 0));
+        }
+    }
+}
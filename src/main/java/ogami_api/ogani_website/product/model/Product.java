@@ -57,7 +57,8 @@ public class Product {
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
     private List<Cart> cartItems;
 
-    // Relationship to OrderDetail
-    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
+    // Relationship to OrderDetail. Tanpa cascade: saat product dihapus, FK ON DELETE SET NULL
+    // yang mengosongkan product_id dan snapshot di order_details tetap ada
+    @OneToMany(mappedBy = "product")
     private List<OrderDetail> orderDetails;
 }
@@ -1,10 +1,19 @@
 package ogami_api.ogani_website.product.repository;
 
+import ogami_api.ogani_website.product.dto.ProductResponse;
 import ogami_api.ogani_website.product.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository untuk Product entity.
@@ -12,11 +21,24 @@ import java.util.List;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 
+    /**
+     * Projection ProductResponse + category dalam satu join (tanpa entity di persistence context).
+     */
+    String RESPONSE_SELECT = "select new ogami_api.ogani_website.product.dto.ProductResponse("
+            + "p.productId, p.productName, p.description, p.price, p.stock, p.productImage, "
+            + "c.categoryId, c.categoryName) "
+            + "from Product p left join p.category c ";
+
     /**
      * Find products by category ID.
      */
     List<Product> findByCategory_CategoryId(Integer categoryId);
 
+    /**
+     * Jumlah product dalam category (tanpa load collection).
+     */
+    long countByCategory_CategoryId(Integer categoryId);
+
     /**
      * Search products by name (case-insensitive).
      */
@@ -26,4 +48,103 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
      * Find products dengan stok tersedia.
      */
     List<Product> findByStockGreaterThan(Integer stock);
+
+    // Read path: DTO projection
+
+    @Query(RESPONSE_SELECT + "order by p.productId")
+    List<ProductResponse> findAllResponses();
+
+    @Query(value = RESPONSE_SELECT, countQuery = "select count(p) from Product p")
+    Page<ProductResponse> findAllResponses(Pageable pageable);
+
+    /**
+     * Keyset pagination: product setelah productId tertentu (tanpa OFFSET dan COUNT).
+     */
+    @Query(RESPONSE_SELECT + "where p.productId > :productId order by p.productId")
+    List<ProductResponse> findResponsesAfter(@Param("productId") Integer productId, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "where c.categoryId = :categoryId order by p.productId")
+    List<ProductResponse> findResponsesByCategoryId(@Param("categoryId") Integer categoryId);
+
+    @Query(RESPONSE_SELECT + "where p.stock > :stock order by p.productId")
+    List<ProductResponse> findResponsesByStockGreaterThan(@Param("stock") Integer stock);
+
+    @Query(RESPONSE_SELECT + "where p.productId in :ids")
+    List<ProductResponse> findResponsesByProductIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Kurangi stok secara atomic. Return 0 kalau product tidak ada atau stok tidak cukup.
+     */
+    @Modifying
+    @Query("update Product p set p.stock = p.stock - :quantity where p.productId = :productId and p.stock >= :quantity")
+    int decrementStock(@Param("productId") Integer productId, @Param("quantity") int quantity);
+
+    /**
+     * Nama dan stok terkini product (scalar query, tidak membaca entity di persistence context).
+     */
+    @Query("select p.productId as productId, p.productName as productName, p.stock as stock "
+            + "from Product p where p.productId = :productId")
+    Optional<ProductStockView> findStockViewById(@Param("productId") Integer productId);
+
+    /**
+     * Ambil field text semua product untuk build search index (tanpa hydrate entity).
+     */
+    @Query("select p.productId as productId, p.productName as productName, p.description as description from Product p")
+    List<ProductTextView> findAllTextViews();
+
+    /**
+     * Ambil nama dan category semua product untuk build autocomplete index.
+     */
+    @Query("select p.productId as productId, p.productName as productName, c.categoryId as categoryId "
+            + "from Product p left join p.category c")
+    List<ProductNameView> findAllNameViews();
+
+    /**
+     * Ambil field filter semua product untuk build facet index.
+     */
+    @Query("select p.productId as productId, c.categoryId as categoryId, p.price as price, p.stock as stock "
+            + "from Product p left join p.category c")
+    List<ProductFacetView> findAllFacetViews();
+
+    /**
+     * Total quantity terjual per product (dipakai sebagai popularity), order yang dibatalkan tidak dihitung.
+     */
+    @Query("select d.product.productId as productId, sum(d.quantity) as quantity "
+            + "from OrderDetail d join d.order o "
+            + "where o.orderStatus <> ogami_api.ogani_website.order.model.OrderStatus.CANCELLED "
+            + "group by d.product.productId")
+    List<ProductSalesView> sumSoldQuantities();
+
+    /**
+     * Projection ringan untuk kebutuhan indexing.
+     */
+    interface ProductTextView {
+        Integer getProductId();
+        String getProductName();
+        String getDescription();
+    }
+
+    interface ProductNameView {
+        Integer getProductId();
+        String getProductName();
+        Integer getCategoryId();
+    }
+
+    interface ProductFacetView {
+        Integer getProductId();
+        Integer getCategoryId();
+        BigDecimal getPrice();
+        Integer getStock();
+    }
+
+    interface ProductStockView {
+        Integer getProductId();
+        String getProductName();
+        Integer getStock();
+    }
+
+    interface ProductSalesView {
+        Integer getProductId();
+        Long getQuantity();
+    }
 }
@@ -0,0 +1,207 @@
+package ogami_api.ogani_website.product.search;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory bitmap index untuk filter dan facet katalog.
+ * Bit = productId (auto increment, jadi padat), satu BitSet per category, satu untuk in-stock,
+ * dan satu per price bucket. Filter: OR di dalam satu dimensi, AND antar dimensi.
+ * Facet count tiap dimensi dihitung dengan filter dimensi lain saja (disjunctive faceting),
+ * supaya sidebar tetap menampilkan pilihan alternatif.
+ */
+public class FacetIndex {
+
+    private final Map<Integer, BitSet> categories = new HashMap<>();
+    private final BitSet inStock = new BitSet();
+    private final BitSet[] priceBuckets;
+    private final BitSet all = new BitSet();
+    private final Map<Integer, Doc> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FacetIndex(int bucketCount) {
+        this.priceBuckets = new BitSet[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            priceBuckets[i] = new BitSet();
+        }
+    }
+
+    private record Doc(Integer categoryId, int bucket, int stock) {
+    }
+
+    /**
+     * Filter browse. Set kosong / null berarti dimensi tersebut tidak difilter.
+     */
+    public record Query(Set<Integer> categoryIds, Boolean inStock, Set<Integer> priceBuckets) {
+    }
+
+    /**
+     * Hasil filter beserta facet count.
+     */
+    public record Result(BitSet matches, Map<Integer, Integer> categoryCounts,
+                         int inStockCount, int outOfStockCount, int[] priceBucketCounts) {
+    }
+
+    /**
+     * Insert atau replace dokumen.
+     */
+    public void put(int docId, Integer categoryId, int bucket, int stock) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+            documents.put(docId, new Doc(categoryId, bucket, stock));
+            all.set(docId);
+            if (categoryId != null) {
+                categories.computeIfAbsent(categoryId, id -> new BitSet()).set(docId);
+            }
+            priceBuckets[bucket].set(docId);
+            inStock.set(docId, stock > 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update stok (delta dari checkout/restock). Hanya bit in-stock yang bisa berubah.
+     */
+    public void adjustStock(int docId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Doc doc = documents.get(docId);
+            if (doc == null) {
+                return;
+            }
+            int stock = doc.stock() + delta;
+            documents.put(docId, new Doc(doc.categoryId(), doc.bucket(), stock));
+            inStock.set(docId, stock > 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            categories.clear();
+            inStock.clear();
+            for (BitSet bucket : priceBuckets) {
+                bucket.clear();
+            }
+            all.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result query(Query query) {
+        lock.readLock().lock();
+        try {
+            BitSet categoryFilter = union(query.categoryIds(), categories::get);
+            BitSet priceFilter = union(query.priceBuckets(),
+                    bucket -> bucket >= 0 && bucket < priceBuckets.length ? priceBuckets[bucket] : null);
+            BitSet stockFilter = query.inStock() == null ? null : stockSet(query.inStock());
+
+            // Facet category: filter stok + harga
+            BitSet base = filter(stockFilter, priceFilter);
+            Map<Integer, Integer> categoryCounts = new HashMap<>();
+            categories.forEach((categoryId, bits) -> {
+                int count = intersectionSize(base, bits);
+                if (count > 0) {
+                    categoryCounts.put(categoryId, count);
+                }
+            });
+
+            // Facet stok: filter category + harga
+            BitSet stockBase = filter(categoryFilter, priceFilter);
+            int inStockCount = intersectionSize(stockBase, inStock);
+            int outOfStockCount = stockBase.cardinality() - inStockCount;
+
+            // Facet harga: filter category + stok
+            BitSet priceBase = filter(categoryFilter, stockFilter);
+            int[] bucketCounts = new int[priceBuckets.length];
+            for (int i = 0; i < priceBuckets.length; i++) {
+                bucketCounts[i] = intersectionSize(priceBase, priceBuckets[i]);
+            }
+
+            BitSet matches = filter(categoryFilter, stockFilter);
+            if (priceFilter != null) {
+                matches.and(priceFilter);
+            }
+            return new Result(matches, categoryCounts, inStockCount, outOfStockCount, bucketCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper methods (dipanggil dengan lock sudah dipegang)
+
+    private BitSet filter(BitSet first, BitSet second) {
+        BitSet result = (BitSet) all.clone();
+        if (first != null) {
+            result.and(first);
+        }
+        if (second != null) {
+            result.and(second);
+        }
+        return result;
+    }
+
+    private BitSet stockSet(boolean available) {
+        BitSet result = (BitSet) inStock.clone();
+        if (!available) {
+            result.xor(all);
+        }
+        return result;
+    }
+
+    private static BitSet union(Set<Integer> keys, Function<Integer, BitSet> lookup) {
+        if (keys == null || keys.isEmpty()) {
+            return null;
+        }
+        BitSet result = new BitSet();
+        for (Integer key : keys) {
+            BitSet bits = lookup.apply(key);
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    private static int intersectionSize(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+
+    private void removeInternal(int docId) {
+        Doc doc = documents.remove(docId);
+        if (doc == null) {
+            return;
+        }
+        all.clear(docId);
+        inStock.clear(docId);
+        priceBuckets[doc.bucket()].clear(docId);
+        if (doc.categoryId() != null) {
+            BitSet bits = categories.get(doc.categoryId());
+            bits.clear(docId);
+            if (bits.isEmpty()) {
+                categories.remove(doc.categoryId());
+            }
+        }
+    }
+}
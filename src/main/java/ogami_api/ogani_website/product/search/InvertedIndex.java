@@ -0,0 +1,247 @@
+package ogami_api.ogani_website.product.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory inverted index: term -> (docId -> weight).
+ * Term juga di-index per trigram supaya query infix (seperti LIKE '%q%') tidak perlu scan seluruh vocabulary.
+ * Thread-safe: read pakai shared lock, update incremental pakai write lock.
+ */
+public class InvertedIndex {
+
+    static final int GRAM_SIZE = 3;
+
+    private static final double EXACT_FACTOR = 1.0;
+    private static final double PREFIX_FACTOR = 0.75;
+    private static final double INFIX_FACTOR = 0.5;
+
+    private static final Comparator<Hit> RANKING = Comparator
+            .comparingDouble(Hit::score).reversed()
+            .thenComparingInt(Hit::docId);
+
+    private final TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> gramIndex = new HashMap<>();
+    private final Map<Integer, Map<String, Integer>> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Hasil search: docId dengan skor relevansi.
+     */
+    public record Hit(int docId, double score) {
+    }
+
+    /**
+     * Insert atau replace dokumen. Term lama yang sudah tidak dipakai langsung dibuang.
+     */
+    public void put(int docId, Map<String, Integer> termWeights) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+            if (termWeights.isEmpty()) {
+                return;
+            }
+            documents.put(docId, Map.copyOf(termWeights));
+            termWeights.forEach((term, weight) -> postings
+                    .computeIfAbsent(term, this::registerTerm)
+                    .put(docId, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hapus dokumen dari index.
+     */
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Kosongkan index (dipakai sebelum full rebuild).
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            gramIndex.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search dengan semantik AND: dokumen harus match semua token query.
+     * Token bisa match exact, prefix, atau infix dari term (skor berbeda).
+     * Hasil sudah terurut berdasarkan skor (desc) lalu docId (asc).
+     */
+    public List<Hit> search(List<String> queryTokens) {
+        return search(queryTokens, token -> Map.of());
+    }
+
+    /**
+     * Search dengan term tambahan per token (misalnya hasil fuzzy lookup).
+     * Expander mengembalikan term -> faktor skor, dan dipanggil di luar lock index.
+     */
+    public List<Hit> search(List<String> queryTokens, Function<String, Map<String, Double>> expander) {
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Map<String, Double>> expansions = new HashMap<>();
+        for (String token : queryTokens) {
+            expansions.computeIfAbsent(token, expander);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (String token : new LinkedHashSet<>(queryTokens)) {
+                Map<Integer, Double> tokenScores = scoreToken(token, expansions.get(token));
+                scores = intersect(scores, tokenScores);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return toHits(scores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper methods (dipanggil dengan lock sudah dipegang)
+
+    private Map<Integer, Double> scoreToken(String token, Map<String, Double> expansion) {
+        Map<String, Double> factors = new HashMap<>(expansion);
+        for (String term : candidateTerms(token)) {
+            double factor = term.equals(token) ? EXACT_FACTOR
+                    : term.startsWith(token) ? PREFIX_FACTOR
+                    : INFIX_FACTOR;
+            factors.merge(term, factor, Math::max);
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        factors.forEach((term, factor) -> {
+            Map<Integer, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.forEach((docId, weight) -> scores.merge(docId, weight * factor, Double::sum));
+            }
+        });
+        return scores;
+    }
+
+    private Collection<String> candidateTerms(String token) {
+        // Token pendek tidak punya trigram, fallback ke prefix scan di vocabulary terurut
+        if (token.length() < GRAM_SIZE) {
+            return postings.subMap(token, true, token + Character.MAX_VALUE, false).keySet();
+        }
+
+        Set<String> smallest = null;
+        for (String gram : grams(token)) {
+            Set<String> terms = gramIndex.get(gram);
+            if (terms == null) {
+                return List.of();
+            }
+            if (smallest == null || terms.size() < smallest.size()) {
+                smallest = terms;
+            }
+        }
+
+        List<String> candidates = new ArrayList<>();
+        for (String term : smallest) {
+            if (term.contains(token)) {
+                candidates.add(term);
+            }
+        }
+        return candidates;
+    }
+
+    private static Map<Integer, Double> intersect(Map<Integer, Double> scores, Map<Integer, Double> tokenScores) {
+        if (scores == null) {
+            return tokenScores;
+        }
+        scores.keySet().retainAll(tokenScores.keySet());
+        scores.replaceAll((docId, score) -> score + tokenScores.get(docId));
+        return scores;
+    }
+
+    private static List<Hit> toHits(Map<Integer, Double> scores) {
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((docId, score) -> hits.add(new Hit(docId, score)));
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    private Map<Integer, Integer> registerTerm(String term) {
+        for (String gram : grams(term)) {
+            gramIndex.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+        return new HashMap<>();
+    }
+
+    private void removeInternal(int docId) {
+        Map<String, Integer> terms = documents.remove(docId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Integer, Integer> docs = postings.get(term);
+            if (docs == null) {
+                continue;
+            }
+            docs.remove(docId);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+                unregisterTerm(term);
+            }
+        }
+    }
+
+    private void unregisterTerm(String term) {
+        for (String gram : grams(term)) {
+            Set<String> terms = gramIndex.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    gramIndex.remove(gram);
+                }
+            }
+        }
+    }
+
+    static Set<String> grams(String term) {
+        if (term.length() < GRAM_SIZE) {
+            return Set.of();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,211 @@
+package ogami_api.ogani_website.product.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trie untuk lookup term dengan edit distance (Levenshtein) terbatas.
+ * Search berjalan seperti Levenshtein automaton: satu baris DP per node trie, dan cabang
+ * langsung dipangkas begitu nilai minimum baris melebihi maxDistance.
+ * Term di-refcount sehingga add/remove bisa incremental tanpa rebuild.
+ */
+public class LevenshteinTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+    private int size;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Node {
+        // Children disimpan sebagai array terurut supaya hemat memori dibanding HashMap
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private String term;
+        private int refCount;
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node addChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node node = new Node();
+            labels = insert(labels, insertAt, label);
+            children = insert(children, insertAt, node);
+            return node;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        private boolean isPrunable() {
+            return refCount == 0 && children.length == 0;
+        }
+    }
+
+    /**
+     * Tambah satu referensi ke term.
+     */
+    public void add(String term) {
+        lock.writeLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < term.length(); i++) {
+                node = node.addChild(term.charAt(i));
+            }
+            if (node.refCount++ == 0) {
+                node.term = term;
+                size++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Kurangi satu referensi ke term. Node yang sudah tidak dipakai langsung dipangkas.
+     */
+    public void remove(String term) {
+        lock.writeLock().lock();
+        try {
+            Node[] path = new Node[term.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < term.length(); i++) {
+                path[i + 1] = path[i].child(term.charAt(i));
+                if (path[i + 1] == null) {
+                    return;
+                }
+            }
+
+            Node node = path[term.length()];
+            if (node.refCount == 0 || --node.refCount > 0) {
+                return;
+            }
+            node.term = null;
+            size--;
+            for (int i = term.length(); i > 0 && path[i].isPrunable(); i--) {
+                path[i - 1].removeChild(term.charAt(i - 1));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.labels = NO_LABELS;
+            root.children = NO_CHILDREN;
+            root.term = null;
+            root.refCount = 0;
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cari semua term dengan edit distance <= maxDistance.
+     * Return map term -> distance, terurut dari distance terkecil.
+     */
+    public Map<String, Integer> search(String query, int maxDistance) {
+        int[] firstRow = new int[query.length() + 1];
+        for (int j = 0; j < firstRow.length; j++) {
+            firstRow[j] = j;
+        }
+
+        List<Map.Entry<String, Integer>> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (query.length() <= maxDistance && root.refCount > 0) {
+                matches.add(Map.entry(root.term, query.length()));
+            }
+            for (int i = 0; i < root.children.length; i++) {
+                walk(root.children[i], root.labels[i], query, firstRow, maxDistance, matches);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Map.Entry.comparingByValue());
+        Map<String, Integer> result = new LinkedHashMap<>();
+        matches.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    // Helper methods
+
+    private static void walk(Node node, char label, String query, int[] previous, int maxDistance,
+                             List<Map.Entry<String, Integer>> matches) {
+        int columns = query.length() + 1;
+        int[] current = new int[columns];
+        current[0] = previous[0] + 1;
+        int rowMin = current[0];
+
+        for (int j = 1; j < columns; j++) {
+            int insert = current[j - 1] + 1;
+            int delete = previous[j] + 1;
+            int replace = previous[j - 1] + (query.charAt(j - 1) == label ? 0 : 1);
+            current[j] = Math.min(Math.min(insert, delete), replace);
+            rowMin = Math.min(rowMin, current[j]);
+        }
+
+        if (node.refCount > 0 && current[columns - 1] <= maxDistance) {
+            matches.add(Map.entry(node.term, current[columns - 1]));
+        }
+        if (rowMin > maxDistance) {
+            return;
+        }
+        for (int i = 0; i < node.children.length; i++) {
+            walk(node.children[i], node.labels[i], query, current, maxDistance, matches);
+        }
+    }
+
+    private static char[] insert(char[] array, int index, char value) {
+        char[] result = new char[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static Node[] insert(Node[] array, int index, Node value) {
+        Node[] result = new Node[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+}
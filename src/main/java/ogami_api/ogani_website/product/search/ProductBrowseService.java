@@ -0,0 +1,177 @@
+package ogami_api.ogani_website.product.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.category.event.CategoryChangedEvent;
+import ogami_api.ogani_website.category.model.Category;
+import ogami_api.ogani_website.category.repository.CategoryRepository;
+import ogami_api.ogani_website.product.dto.FacetCount;
+import ogami_api.ogani_website.product.dto.ProductBrowseResponse;
+import ogami_api.ogani_website.product.dto.ProductResponse;
+import ogami_api.ogani_website.product.event.ProductChangedEvent;
+import ogami_api.ogani_website.product.event.StockChangedEvent;
+import ogami_api.ogani_website.product.inventory.HotInventoryEngine;
+import ogami_api.ogani_website.product.model.Product;
+import ogami_api.ogani_website.product.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Browse katalog dengan kombinasi filter (category, stok, range harga) dan facet count,
+ * dijawab dari FacetIndex di memory. Database hanya disentuh untuk hydrate halaman hasil.
+ * Index di-update dari event product, category, dan perubahan stok saat checkout.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductBrowseService {
+
+    // Batas price bucket (Rupiah): < 10rb, 10rb-25rb, 25rb-50rb, 50rb-100rb, >= 100rb
+    private static final long[] PRICE_BOUNDARIES = {10_000, 25_000, 50_000, 100_000};
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final HotInventoryEngine hotInventoryEngine;
+    private final FacetIndex index = new FacetIndex(PRICE_BOUNDARIES.length + 1);
+    private final Map<Integer, String> categoryNames = new ConcurrentHashMap<>();
+
+    /**
+     * Full rebuild dari database (dipanggil saat aplikasi ready).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIndex() {
+        long start = System.currentTimeMillis();
+        index.clear();
+        categoryNames.clear();
+        for (Category category : categoryRepository.findAll()) {
+            categoryNames.put(category.getCategoryId(), category.getCategoryName());
+        }
+        List<ProductRepository.ProductFacetView> products = productRepository.findAllFacetViews();
+        for (ProductRepository.ProductFacetView view : products) {
+            index.put(view.getProductId(), view.getCategoryId(), bucketOf(view.getPrice()),
+                    stockOf(view.getProductId(), view.getStock()));
+        }
+        log.info("Facet index built: {} products in {} ms", products.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            index.remove(event.getProductId());
+            return;
+        }
+        Product product = event.getProduct();
+        Integer categoryId = product.getCategory() != null ? product.getCategory().getCategoryId() : null;
+        index.put(product.getProductId(), categoryId, bucketOf(product.getPrice()),
+                stockOf(product.getProductId(), product.getStock()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        index.adjustStock(event.getProductId(), event.getDelta());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.isDeleted()) {
+            categoryNames.remove(event.getCategoryId());
+            return;
+        }
+        categoryNames.put(event.getCategoryId(), event.getCategory().getCategoryName());
+    }
+
+    /**
+     * Filter + facet. OR di dalam satu dimensi (misalnya beberapa category), AND antar dimensi.
+     * Hasil terurut berdasarkan productId.
+     */
+    public ProductBrowseResponse browse(Set<Integer> categoryIds, Boolean inStock, Set<Integer> priceRanges,
+                                        int page, int size) {
+        FacetIndex.Result result = index.query(new FacetIndex.Query(categoryIds, inStock, priceRanges));
+
+        return ProductBrowseResponse.builder()
+                .products(hydrate(pageIds(result.matches(), page, size)))
+                .totalElements(result.matches().cardinality())
+                .page(page)
+                .size(size)
+                .categories(categoryFacets(result.categoryCounts()))
+                .stock(List.of(
+                        new FacetCount("true", "Tersedia", result.inStockCount()),
+                        new FacetCount("false", "Habis", result.outOfStockCount())))
+                .priceRanges(priceFacets(result.priceBucketCounts()))
+                .build();
+    }
+
+    // Helper methods
+
+    private static List<Integer> pageIds(BitSet matches, int page, int size) {
+        List<Integer> ids = new ArrayList<>(size);
+        long skip = (long) page * size;
+        for (int id = matches.nextSetBit(0); id >= 0 && ids.size() < size; id = matches.nextSetBit(id + 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private List<ProductResponse> hydrate(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<ProductResponse> products = new ArrayList<>(productRepository.findResponsesByProductIdIn(ids));
+        products.sort(Comparator.comparing(ProductResponse::getProductId));
+        return products;
+    }
+
+    private List<FacetCount> categoryFacets(Map<Integer, Integer> counts) {
+        List<FacetCount> facets = new ArrayList<>(counts.size());
+        counts.forEach((categoryId, count) -> facets.add(new FacetCount(
+                String.valueOf(categoryId), categoryNames.getOrDefault(categoryId, String.valueOf(categoryId)), count)));
+        facets.sort(Comparator.comparing(FacetCount::getLabel));
+        return facets;
+    }
+
+    private static List<FacetCount> priceFacets(int[] counts) {
+        List<FacetCount> facets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            String label = i == 0 ? "< " + PRICE_BOUNDARIES[0]
+                    : i == PRICE_BOUNDARIES.length ? ">= " + PRICE_BOUNDARIES[i - 1]
+                    : PRICE_BOUNDARIES[i - 1] + " - " + PRICE_BOUNDARIES[i];
+            facets.add(new FacetCount(String.valueOf(i), label, counts[i]));
+        }
+        return facets;
+    }
+
+    private static int bucketOf(BigDecimal price) {
+        long value = price != null ? price.longValue() : 0;
+        int bucket = 0;
+        while (bucket < PRICE_BOUNDARIES.length && value >= PRICE_BOUNDARIES[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Stok untuk index: product hot dari HotInventoryEngine (products.stock tertinggal sampai journal
+     * di-flush), sama seperti CartService.availableStock.
+     */
+    private int stockOf(Integer productId, Integer stock) {
+        if (hotInventoryEngine.isHot(productId)) {
+            return hotInventoryEngine.available(productId);
+        }
+        return stock != null ? stock : 0;
+    }
+}
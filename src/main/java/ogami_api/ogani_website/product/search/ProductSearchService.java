@@ -0,0 +1,169 @@
+package ogami_api.ogani_website.product.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.product.dto.ProductResponse;
+import ogami_api.ogani_website.product.event.ProductChangedEvent;
+import ogami_api.ogani_website.product.model.Product;
+import ogami_api.ogani_website.product.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search product berbasis in-memory inverted index.
+ * Index di-build sekali saat startup lalu di-update incremental dari ProductChangedEvent,
+ * sehingga MySQL hanya disentuh untuk hydrate product di halaman hasil.
+ * Mode fuzzy memakai Levenshtein trie di atas vocabulary nama product untuk toleransi typo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchService {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    private final ProductRepository productRepository;
+    private final InvertedIndex index = new InvertedIndex();
+    private final LevenshteinTrie nameVocabulary = new LevenshteinTrie();
+    private final Map<Integer, Set<String>> nameTermsByProduct = new HashMap<>();
+
+    /**
+     * Full rebuild index dari tabel products (dipanggil saat aplikasi ready).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIndex() {
+        long start = System.currentTimeMillis();
+        index.clear();
+        nameVocabulary.clear();
+        nameTermsByProduct.clear();
+        for (ProductRepository.ProductTextView view : productRepository.findAllTextViews()) {
+            put(view.getProductId(), view.getProductName(), view.getDescription());
+        }
+        log.info("Product search index built: {} products in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Update index setelah transaksi product commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            index.remove(event.getProductId());
+            updateNameVocabulary(event.getProductId(), Set.of());
+            return;
+        }
+        Product product = event.getProduct();
+        put(product.getProductId(), product.getProductName(), product.getDescription());
+    }
+
+    /**
+     * Search semua product yang match, terurut berdasarkan relevansi.
+     */
+    public List<ProductResponse> search(String query, boolean fuzzy) {
+        return hydrate(searchIds(query, fuzzy));
+    }
+
+    /**
+     * Search dengan pagination. Hanya product di halaman yang diminta yang di-load dari database
+     * (sebagai projection, bukan entity).
+     */
+    public Page<ProductResponse> search(String query, boolean fuzzy, Pageable pageable) {
+        List<Integer> ids = searchIds(query, fuzzy);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(hydrate(ids.subList(from, to)), pageable, ids.size());
+    }
+
+    /**
+     * Product ID hasil search, terurut berdasarkan relevansi.
+     */
+    public List<Integer> searchIds(String query, boolean fuzzy) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        List<InvertedIndex.Hit> hits = fuzzy
+                ? index.search(tokens, this::fuzzyTerms)
+                : index.search(tokens);
+        return hits.stream()
+                .map(InvertedIndex.Hit::docId)
+                .collect(Collectors.toList());
+    }
+
+    // Helper methods
+
+    private void put(Integer productId, String productName, String description) {
+        index.put(productId, termWeights(productName, description));
+        updateNameVocabulary(productId, new HashSet<>(TextNormalizer.tokenize(productName)));
+    }
+
+    private void updateNameVocabulary(Integer productId, Set<String> newTerms) {
+        Set<String> oldTerms = newTerms.isEmpty()
+                ? nameTermsByProduct.remove(productId)
+                : nameTermsByProduct.put(productId, newTerms);
+        if (oldTerms == null) {
+            oldTerms = Set.of();
+        }
+        for (String term : oldTerms) {
+            if (!newTerms.contains(term)) {
+                nameVocabulary.remove(term);
+            }
+        }
+        for (String term : newTerms) {
+            if (!oldTerms.contains(term)) {
+                nameVocabulary.add(term);
+            }
+        }
+    }
+
+    /**
+     * Term dari vocabulary nama product yang mirip dengan token (toleransi 1 typo, 2 untuk kata panjang).
+     * Skor diturunkan sesuai jarak edit.
+     */
+    private Map<String, Double> fuzzyTerms(String token) {
+        if (token.length() < MIN_FUZZY_LENGTH) {
+            return Map.of();
+        }
+        int maxDistance = token.length() <= 5 ? 1 : 2;
+        Map<String, Double> terms = new HashMap<>();
+        nameVocabulary.search(token, maxDistance)
+                .forEach((term, distance) -> terms.put(term, 1.0 / (1 + distance)));
+        return terms;
+    }
+
+    private List<ProductResponse> hydrate(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, ProductResponse> byId = productRepository.findResponsesByProductIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductResponse::getProductId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Integer> termWeights(String productName, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : TextNormalizer.tokenize(productName)) {
+            weights.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : TextNormalizer.tokenize(description)) {
+            weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,174 @@
+package ogami_api.ogani_website.product.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ogami_api.ogani_website.category.event.CategoryChangedEvent;
+import ogami_api.ogani_website.category.model.Category;
+import ogami_api.ogani_website.category.repository.CategoryRepository;
+import ogami_api.ogani_website.product.dto.SuggestionResponse;
+import ogami_api.ogani_website.product.event.ProductChangedEvent;
+import ogami_api.ogani_website.product.event.StockChangedEvent;
+import ogami_api.ogani_website.product.model.Product;
+import ogami_api.ogani_website.product.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Prefix autocomplete untuk nama product dan category.
+ * Popularity product = total quantity terjual, popularity category = jumlah product + total terjual
+ * di category tersebut. Semua state ada di memory dan di-maintain dari event write path.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSuggestService {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final String PRODUCT = "PRODUCT";
+    private static final String CATEGORY = "CATEGORY";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final SuggestionTrie trie = new SuggestionTrie(MAX_SUGGESTIONS);
+
+    // Popularity state, hanya diubah di method synchronized
+    private final Map<Integer, Long> productSales = new HashMap<>();
+    private final Map<Integer, Integer> productCategory = new HashMap<>();
+    private final Map<Integer, Long> categoryScores = new HashMap<>();
+
+    /**
+     * Full rebuild dari database (dipanggil saat aplikasi ready).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIndex() {
+        long start = System.currentTimeMillis();
+        trie.clear();
+        productSales.clear();
+        productCategory.clear();
+        categoryScores.clear();
+
+        for (ProductRepository.ProductSalesView view : productRepository.sumSoldQuantities()) {
+            productSales.put(view.getProductId(), view.getQuantity());
+        }
+        List<ProductRepository.ProductNameView> products = productRepository.findAllNameViews();
+        for (ProductRepository.ProductNameView view : products) {
+            putProduct(view.getProductId(), view.getProductName(), view.getCategoryId());
+        }
+        List<Category> categories = categoryRepository.findAll();
+        for (Category category : categories) {
+            putCategory(category.getCategoryId(), category.getCategoryName());
+        }
+
+        log.info("Suggestion index built: {} products, {} categories in {} ms",
+                products.size(), categories.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            removeProduct(event.getProductId());
+            return;
+        }
+        Product product = event.getProduct();
+        Integer categoryId = product.getCategory() != null ? product.getCategory().getCategoryId() : null;
+        putProduct(product.getProductId(), product.getProductName(), categoryId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.isDeleted()) {
+            trie.remove(categoryKey(event.getCategoryId()));
+            categoryScores.remove(event.getCategoryId());
+            return;
+        }
+        putCategory(event.getCategoryId(), event.getCategory().getCategoryName());
+    }
+
+    /**
+     * Stok berkurang = product terjual, popularity naik. Stok kembali (order cancel / expired)
+     * mengurangi lagi jumlah terjual, minimal 0.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStockChanged(StockChangedEvent event) {
+        if (event.getDelta() == 0 || !productCategory.containsKey(event.getProductId())) {
+            return;
+        }
+        long previous = productSales.getOrDefault(event.getProductId(), 0L);
+        long sales = Math.max(0, previous - event.getDelta());
+        if (sales == previous) {
+            return;
+        }
+        productSales.put(event.getProductId(), sales);
+        trie.updateScore(productKey(event.getProductId()), sales);
+        adjustCategoryScore(productCategory.get(event.getProductId()), sales - previous);
+    }
+
+    /**
+     * Top-K suggestion untuk prefix, terurut berdasarkan popularity.
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return trie.suggest(prefix, size).stream()
+                .map(entry -> (SuggestionResponse) entry.getPayload())
+                .collect(Collectors.toList());
+    }
+
+    // Helper methods
+
+    private void putProduct(Integer productId, String productName, Integer categoryId) {
+        long sales = productSales.getOrDefault(productId, 0L);
+        trie.put(productKey(productId), productName,
+                new SuggestionResponse(productName, PRODUCT, productId), sales);
+
+        // Pindahkan kontribusi popularity kalau category product berubah
+        boolean known = productCategory.containsKey(productId);
+        Integer previousCategory = productCategory.put(productId, categoryId);
+        if (known && Objects.equals(previousCategory, categoryId)) {
+            return;
+        }
+        if (known) {
+            adjustCategoryScore(previousCategory, -(1 + sales));
+        }
+        adjustCategoryScore(categoryId, 1 + sales);
+    }
+
+    private void removeProduct(Integer productId) {
+        trie.remove(productKey(productId));
+        long sales = productSales.getOrDefault(productId, 0L);
+        productSales.remove(productId);
+        if (productCategory.containsKey(productId)) {
+            adjustCategoryScore(productCategory.remove(productId), -(1 + sales));
+        }
+    }
+
+    private void putCategory(Integer categoryId, String categoryName) {
+        trie.put(categoryKey(categoryId), categoryName,
+                new SuggestionResponse(categoryName, CATEGORY, categoryId),
+                categoryScores.getOrDefault(categoryId, 0L));
+    }
+
+    private void adjustCategoryScore(Integer categoryId, long delta) {
+        if (categoryId == null) {
+            return;
+        }
+        long score = categoryScores.merge(categoryId, delta, Long::sum);
+        trie.updateScore(categoryKey(categoryId), score);
+    }
+
+    private static String productKey(Integer productId) {
+        return "P" + productId;
+    }
+
+    private static String categoryKey(Integer categoryId) {
+        return "C" + categoryId;
+    }
+}
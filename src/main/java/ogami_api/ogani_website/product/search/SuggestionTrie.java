@@ -0,0 +1,294 @@
+package ogami_api.ogani_website.product.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Trie untuk prefix autocomplete dengan ranking berdasarkan score (popularity).
+ * Setiap entry di-index di awal setiap kata, jadi "fuji" juga menemukan "Apple Fuji".
+ * Node menyimpan cache top-K yang diisi lazy dan di-maintain incremental saat score naik,
+ * sehingga query prefix pendek tidak perlu DFS seluruh subtree setiap kali.
+ */
+public class SuggestionTrie {
+
+    private static final int MAX_KEY_LENGTH = 40;
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong(Entry::getScore).reversed()
+            .thenComparing(Entry::getText);
+
+    private final int cacheSize;
+    private final Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SuggestionTrie(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Entry suggestion. Score hanya diubah di bawah write lock.
+     */
+    public static final class Entry {
+        private final String id;
+        private final String text;
+        private final Object payload;
+        private final List<String> keys;
+        private long score;
+
+        private Entry(String id, String text, Object payload, List<String> keys, long score) {
+            this.id = id;
+            this.text = text;
+            this.payload = payload;
+            this.keys = keys;
+            this.score = score;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Object getPayload() {
+            return payload;
+        }
+
+        public long getScore() {
+            return score;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final Set<Entry> entries = new LinkedHashSet<>(1);
+        private volatile TopK cache;
+    }
+
+    /**
+     * Cache top-K per node. complete = true berarti subtree punya kurang dari K entry
+     * (semua entry subtree ada di list).
+     */
+    private record TopK(List<Entry> entries, boolean complete) {
+    }
+
+    /**
+     * Insert atau replace entry.
+     */
+    public void put(String id, String text, Object payload, long score) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            List<String> keys = keys(text);
+            Entry entry = new Entry(id, text, payload, keys, score);
+            entries.put(id, entry);
+            for (String key : keys) {
+                Node node = root;
+                promote(node, entry);
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                    promote(node, entry);
+                }
+                node.entries.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update score entry. Kenaikan score di-apply langsung ke cache, penurunan meng-invalidate cache.
+     */
+    public void updateScore(String id, long score) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            if (entry == null || entry.score == score) {
+                return;
+            }
+            boolean increased = score > entry.score;
+            entry.score = score;
+            for (String key : entry.keys) {
+                forEachOnPath(key, node -> {
+                    if (increased) {
+                        promote(node, entry);
+                    } else {
+                        node.cache = null;
+                    }
+                });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.entries.clear();
+            root.cache = null;
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long getScore(String id) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            return entry != null ? entry.score : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Top-K entry yang punya kata berawalan prefix, terurut berdasarkan score.
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            TopK topK = node.cache;
+            if (topK == null) {
+                topK = collect(node);
+                node.cache = topK;
+            }
+            List<Entry> result = topK.entries();
+            return List.copyOf(result.subList(0, Math.min(limit, result.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper methods
+
+    private TopK collect(Node start) {
+        Set<Entry> found = new LinkedHashSet<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            found.addAll(node.entries);
+            node.children.values().forEach(stack::push);
+        }
+        List<Entry> sorted = new ArrayList<>(found);
+        sorted.sort(RANKING);
+        boolean complete = sorted.size() < cacheSize;
+        return new TopK(sorted.subList(0, Math.min(cacheSize, sorted.size())), complete);
+    }
+
+    /**
+     * Masukkan entry (baru atau score naik) ke cache node tanpa DFS ulang.
+     */
+    private void promote(Node node, Entry entry) {
+        TopK topK = node.cache;
+        if (topK == null) {
+            return;
+        }
+        List<Entry> list = topK.entries();
+        boolean contained = list.contains(entry);
+        if (!contained && !topK.complete()
+                && !list.isEmpty() && RANKING.compare(entry, list.get(list.size() - 1)) > 0) {
+            return;
+        }
+
+        List<Entry> updated = new ArrayList<>(list);
+        if (!contained) {
+            updated.add(entry);
+        }
+        updated.sort(RANKING);
+        boolean complete = topK.complete() && updated.size() < cacheSize;
+        node.cache = new TopK(updated.subList(0, Math.min(cacheSize, updated.size())), complete);
+    }
+
+    private void removeInternal(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length() && path[i] != null; i++) {
+                path[i + 1] = path[i].children.get(key.charAt(i));
+            }
+            for (Node node : path) {
+                if (node != null) {
+                    node.cache = null;
+                }
+            }
+            Node leaf = path[key.length()];
+            if (leaf == null) {
+                continue;
+            }
+            leaf.entries.remove(entry);
+            // Pangkas node kosong dari bawah ke atas
+            for (int i = key.length(); i > 0; i--) {
+                Node node = path[i];
+                if (!node.entries.isEmpty() || !node.children.isEmpty()) {
+                    break;
+                }
+                path[i - 1].children.remove(key.charAt(i - 1));
+            }
+        }
+    }
+
+    private void forEachOnPath(String key, Consumer<Node> action) {
+        Node node = root;
+        action.accept(node);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+            if (node != null) {
+                action.accept(node);
+            }
+        }
+    }
+
+    /**
+     * Key untuk entry: text yang sudah di-normalize, mulai dari setiap awal kata.
+     */
+    private static List<String> keys(String text) {
+        List<String> tokens = TextNormalizer.tokenize(text);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String key = String.join(" ", tokens.subList(i, tokens.size()));
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+        }
+        return List.copyOf(keys);
+    }
+
+    private static String normalize(String prefix) {
+        return String.join(" ", TextNormalizer.tokenize(prefix));
+    }
+}
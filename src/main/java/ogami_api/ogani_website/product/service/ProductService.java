@@ -3,16 +3,39 @@ package ogami_api.ogani_website.product.service;
 import lombok.RequiredArgsConstructor;
 import ogami_api.ogani_website.category.model.Category;
 import ogami_api.ogani_website.category.repository.CategoryRepository;
+import ogami_api.ogani_website.common.NdjsonStreamer;
 import ogami_api.ogani_website.exception.DataNotFoundException;
 import ogami_api.ogani_website.exception.InsufficientStockException;
+import ogami_api.ogani_website.product.dto.ProductBrowseResponse;
+import ogami_api.ogani_website.product.dto.ProductResponse;
+import ogami_api.ogani_website.product.event.ProductChangedEvent;
+import ogami_api.ogani_website.product.event.StockChangedEvent;
+import ogami_api.ogani_website.product.inventory.HotInventoryEngine;
 import ogami_api.ogani_website.product.model.Product;
 import ogami_api.ogani_website.product.repository.ProductRepository;
+import ogami_api.ogani_website.product.search.ProductBrowseService;
+import ogami_api.ogani_website.product.search.ProductSearchService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * Service layer untuk Product.
@@ -25,19 +48,71 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductSearchService productSearchService;
+    private final ProductBrowseService productBrowseService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final JdbcTemplate jdbcTemplate;
+    private final HotInventoryEngine hotInventoryEngine;
+
+    private static final String STREAM_PRODUCTS_SQL = """
+            SELECT p.product_id, p.product_name, p.description, p.price, p.stock, p.product_image,
+                   c.category_id, c.category_name
+            FROM products p
+            LEFT JOIN categories c ON c.category_id = p.category_id
+            ORDER BY p.product_id
+            """;
+
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock = stock - ? WHERE product_id = ? AND stock >= ?";
+
+    private static final String RESTORE_STOCK_SQL = "UPDATE products SET stock = stock + ? WHERE product_id = ?";
+
+    private static final String LOCK_PRODUCTS_SQL =
+            "SELECT product_id, product_name, stock FROM products WHERE product_id IN (%s) ORDER BY product_id FOR UPDATE";
 
     /**
-     * Get all products.
+     * Get all products (projection ProductResponse, category di-join dalam query yang sama).
      */
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getAllProducts() {
+        return productRepository.findAllResponses();
     }
 
     /**
      * Get all products with pagination.
      */
-    public Page<Product> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getAllProducts(Pageable pageable) {
+        return productRepository.findAllResponses(pageable);
+    }
+
+    /**
+     * Stream semua product sebagai NDJSON langsung dari JDBC cursor (tanpa load entity).
+     * Field sama dengan ProductResponse.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamAllProducts(OutputStream out) throws IOException {
+        ndjsonStreamer.stream(out, STREAM_PRODUCTS_SQL, new Object[0], (rs, json) -> {
+            json.writeStartObject();
+            NdjsonStreamer.writeInt(json, "productId", rs, "product_id");
+            NdjsonStreamer.writeString(json, "productName", rs, "product_name");
+            NdjsonStreamer.writeString(json, "description", rs, "description");
+            NdjsonStreamer.writeDecimal(json, "price", rs, "price");
+            NdjsonStreamer.writeInt(json, "stock", rs, "stock");
+            NdjsonStreamer.writeString(json, "productImage", rs, "product_image");
+            NdjsonStreamer.writeInt(json, "categoryId", rs, "category_id");
+            NdjsonStreamer.writeString(json, "categoryName", rs, "category_name");
+            json.writeEndObject();
+        });
+    }
+
+    /**
+     * Get products setelah productId tertentu (keyset pagination).
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsAfter(Integer afterProductId, int limit) {
+        return productRepository.findResponsesAfter(afterProductId, PageRequest.of(0, limit));
     }
 
     /**
@@ -49,28 +124,49 @@ public class ProductService {
     }
 
     /**
-     * Search products by name.
+     * Search products by name/description (ranked, dari in-memory index).
+     * Fuzzy mode toleran terhadap typo pada nama product.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchProducts(String keyword, boolean fuzzy) {
+        return productSearchService.search(keyword, fuzzy);
+    }
+
+    /**
+     * Search products with pagination.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> searchProducts(String keyword, boolean fuzzy, Pageable pageable) {
+        return productSearchService.search(keyword, fuzzy, pageable);
+    }
+
+    /**
+     * Browse katalog dengan filter category / stok / range harga plus facet count (dari bitmap index).
      */
-    public List<Product> searchProducts(String keyword) {
-        return productRepository.findByProductNameContainingIgnoreCase(keyword);
+    @Transactional(readOnly = true)
+    public ProductBrowseResponse browseProducts(Set<Integer> categoryIds, Boolean inStock, Set<Integer> priceRanges,
+                                                int page, int size) {
+        return productBrowseService.browse(categoryIds, inStock, priceRanges, page, size);
     }
 
     /**
      * Get products by category.
      */
-    public List<Product> getProductsByCategory(Integer categoryId) {
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsByCategory(Integer categoryId) {
         // Validate category exists
         if (!categoryRepository.existsById(categoryId)) {
             throw new DataNotFoundException("Category", categoryId);
         }
-        return productRepository.findByCategory_CategoryId(categoryId);
+        return productRepository.findResponsesByCategoryId(categoryId);
     }
 
     /**
      * Get products dengan stok tersedia.
      */
-    public List<Product> getAvailableProducts() {
-        return productRepository.findByStockGreaterThan(0);
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getAvailableProducts() {
+        return productRepository.findResponsesByStockGreaterThan(0);
     }
 
     /**
@@ -94,7 +190,9 @@ public class ProductService {
             product.setCategory(category);
         }
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved));
+        return saved;
     }
 
     /**
@@ -112,7 +210,9 @@ public class ProductService {
             existing.setDescription(updatedProduct.getDescription());
         }
 
+        boolean priceChanged = false;
         if (updatedProduct.getPrice() != null && updatedProduct.getPrice().doubleValue() > 0) {
+            priceChanged = existing.getPrice() == null || existing.getPrice().compareTo(updatedProduct.getPrice()) != 0;
             existing.setPrice(updatedProduct.getPrice());
         }
 
@@ -131,7 +231,9 @@ public class ProductService {
             existing.setCategory(category);
         }
 
-        return productRepository.save(existing);
+        Product saved = productRepository.save(existing);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(saved, priceChanged));
+        return saved;
     }
 
     /**
@@ -141,24 +243,80 @@ public class ProductService {
     public void deleteProduct(Integer productId) {
         Product product = getProductById(productId);
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(productId));
     }
 
     /**
-     * Reduce stock ketika ada pembelian (digunakan oleh OrderService).
+     * Reduce stock ketika ada pembelian.
+     * Pengecekan dan pengurangan stok dilakukan dalam satu guarded UPDATE, jadi aman dari race
+     * tanpa perlu lock row sepanjang transaksi.
      */
     public void reduceStock(Integer productId, Integer quantity) {
-        Product product = getProductById(productId);
+        validateQuantity(quantity);
+        if (hotInventoryEngine.isHot(productId)) {
+            reserveHot(productId, quantity);
+        } else if (productRepository.decrementStock(productId, quantity) == 0) {
+            throw stockFailure(productId, quantity);
+        }
+        eventPublisher.publishEvent(new StockChangedEvent(productId, -quantity));
+    }
+
+    /**
+     * Reduce stock untuk banyak product sekaligus (checkout cart).
+     * Row product dikunci dengan satu SELECT ... FOR UPDATE urut productId (urutan lock konsisten
+     * antar transaksi, jadi tidak deadlock), divalidasi, lalu dikurangi dalam satu JDBC batch.
+     * Jumlah statement konstan berapapun jumlah item. Kalau ada satu product yang gagal,
+     * exception dilempar dan seluruh transaksi di-rollback.
+     * Product hot direservasi lewat HotInventoryEngine, tidak menyentuh row products.
+     */
+    public void reduceStock(Map<Integer, Integer> quantities) {
+        SortedMap<Integer, Integer> sorted = new TreeMap<>(quantities);
+        sorted.values().forEach(this::validateQuantity);
+
+        List<Map.Entry<Integer, Integer>> cold = new ArrayList<>(sorted.size());
+        List<Object[]> args = new ArrayList<>(sorted.size());
+        for (Map.Entry<Integer, Integer> entry : sorted.entrySet()) {
+            if (hotInventoryEngine.isHot(entry.getKey())) {
+                reserveHot(entry.getKey(), entry.getValue());
+            } else {
+                cold.add(entry);
+                args.add(new Object[]{entry.getValue(), entry.getKey(), entry.getValue()});
+            }
+        }
 
-        if (product.getStock() < quantity) {
-            throw new InsufficientStockException(
-                    product.getProductName(),
-                    quantity,
-                    product.getStock()
-            );
+        if (!args.isEmpty()) {
+            lockAndValidate(cold);
+            int[] updated = jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, args);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    throw stockFailure(cold.get(i).getKey(), cold.get(i).getValue());
+                }
+            }
         }
+        sorted.forEach((productId, quantity) -> eventPublisher.publishEvent(new StockChangedEvent(productId, -quantity)));
+    }
+
+    /**
+     * Kembalikan stok (order dibatalkan / expired). Quantity sudah diagregasi per product,
+     * jadi cukup satu UPDATE per product dalam satu JDBC batch, urut productId.
+     * Product hot dikembalikan lewat journal HotInventoryEngine.
+     */
+    public void restoreStock(Map<Integer, Integer> quantities) {
+        SortedMap<Integer, Integer> sorted = new TreeMap<>(quantities);
+        sorted.values().forEach(this::validateQuantity);
 
-        product.setStock(product.getStock() - quantity);
-        productRepository.save(product);
+        List<Object[]> args = new ArrayList<>(sorted.size());
+        sorted.forEach((productId, quantity) -> {
+            if (hotInventoryEngine.isHot(productId)) {
+                hotInventoryEngine.release(productId, quantity);
+            } else {
+                args.add(new Object[]{quantity, productId});
+            }
+        });
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(RESTORE_STOCK_SQL, args);
+        }
+        sorted.forEach((productId, quantity) -> eventPublisher.publishEvent(new StockChangedEvent(productId, quantity)));
     }
 
     /**
@@ -178,7 +336,9 @@ public class ProductService {
         }
 
         // Save all products in batch
-        return productRepository.saveAll(products);
+        List<Product> saved = productRepository.saveAll(products);
+        saved.forEach(product -> eventPublisher.publishEvent(ProductChangedEvent.created(product)));
+        return saved;
     }
 
     /**
@@ -195,5 +355,54 @@ public class ProductService {
 
         // Delete all products
         productRepository.deleteAllById(productIds);
+        productIds.forEach(id -> eventPublisher.publishEvent(ProductChangedEvent.deleted(id)));
+    }
+
+    // Helper methods
+
+    private void validateQuantity(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity harus lebih dari 0");
+        }
+    }
+
+    private void lockAndValidate(List<Map.Entry<Integer, Integer>> items) {
+        String placeholders = String.join(",", Collections.nCopies(items.size(), "?"));
+        Map<Integer, ProductStock> locked = new HashMap<>();
+        jdbcTemplate.query(String.format(LOCK_PRODUCTS_SQL, placeholders),
+                (RowCallbackHandler) rs -> locked.put(rs.getInt("product_id"),
+                        new ProductStock(rs.getString("product_name"), rs.getInt("stock"))),
+                items.stream().map(Map.Entry::getKey).toArray());
+
+        for (Map.Entry<Integer, Integer> item : items) {
+            ProductStock product = locked.get(item.getKey());
+            if (product == null) {
+                throw new DataNotFoundException("Product", item.getKey());
+            }
+            if (product.stock() < item.getValue()) {
+                throw new InsufficientStockException(product.productName(), item.getValue(), product.stock());
+            }
+        }
+    }
+
+    private record ProductStock(String productName, int stock) {
+    }
+
+    private void reserveHot(Integer productId, int quantity) {
+        if (!hotInventoryEngine.reserve(productId, quantity)) {
+            String productName = productRepository.findStockViewById(productId)
+                    .map(ProductRepository.ProductStockView::getProductName)
+                    .orElseThrow(() -> new DataNotFoundException("Product", productId));
+            throw new InsufficientStockException(productName, quantity, hotInventoryEngine.available(productId));
+        }
+    }
+
+    /**
+     * Guarded UPDATE tidak mengubah row: bedakan product tidak ada vs stok tidak cukup.
+     */
+    private RuntimeException stockFailure(Integer productId, int quantity) {
+        return productRepository.findStockViewById(productId)
+                .<RuntimeException>map(view -> new InsufficientStockException(view.getProductName(), quantity, view.getStock()))
+                .orElseGet(() -> new DataNotFoundException("Product", productId));
     }
 }
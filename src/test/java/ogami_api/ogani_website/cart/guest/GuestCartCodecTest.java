@@ -0,0 +1,68 @@
+package ogami_api.ogani_website.cart.guest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GuestCartCodecTest {
+
+    private final GuestCartCodec codec = new GuestCartCodec("test-secret", "jwt-secret", 30);
+
+    @Test
+    void roundTripKeepsLinesAndOrder() {
+        Map<Integer, Integer> lines = new LinkedHashMap<>();
+        lines.put(42, 3);
+        lines.put(7, 1);
+        lines.put(100_000, GuestCartCodec.MAX_QUANTITY);
+
+        String token = codec.encode(lines);
+
+        assertEquals(lines, codec.decode(token));
+        assertEquals(List.copyOf(lines.keySet()), List.copyOf(codec.decode(token).keySet()));
+        assertTrue(token.length() < 64, token);
+    }
+
+    @Test
+    void tamperedOrForeignTokenIsEmptyCart() {
+        String token = codec.encode(Map.of(1, 2));
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        bytes[7] ^= 1;  // quantity line pertama
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        assertTrue(codec.decode(tampered).isEmpty());
+        assertTrue(new GuestCartCodec("other-secret", "jwt-secret", 30).decode(token).isEmpty());
+        assertTrue(codec.decode("not a token").isEmpty());
+        assertTrue(codec.decode(null).isEmpty());
+    }
+
+    @Test
+    void derivedKeyIsNotTheJwtSecret() {
+        GuestCartCodec derived = new GuestCartCodec("", "jwt-secret", 30);
+        String token = derived.encode(Map.of(1, 2));
+
+        assertEquals(Map.of(1, 2), new GuestCartCodec(null, "jwt-secret", 30).decode(token));
+        assertTrue(new GuestCartCodec("jwt-secret", "jwt-secret", 30).decode(token).isEmpty());
+    }
+
+    @Test
+    void expiredTokenIsEmptyCart() {
+        String token = new GuestCartCodec("test-secret", "jwt-secret", 30).encode(Map.of(1, 2));
+        assertTrue(new GuestCartCodec("test-secret", "jwt-secret", -1).decode(token).isEmpty());
+    }
+
+    @Test
+    void rejectsTooManyLines() {
+        Map<Integer, Integer> lines = new LinkedHashMap<>();
+        for (int i = 1; i <= GuestCartCodec.MAX_LINES + 1; i++) {
+            lines.put(i, 1);
+        }
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(lines));
+    }
+}
@@ -0,0 +1,80 @@
+package ogami_api.ogani_website.cart.service;
+
+import ogami_api.ogani_website.cart.dto.CartSummaryResponse;
+import ogami_api.ogani_website.cart.store.CartStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartSummaryCacheTest {
+
+    private static final Integer USER_ID = 7;
+
+    private JdbcTemplate jdbcTemplate;
+    private CartSummaryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        cache = new CartSummaryCache(jdbcTemplate, mock(CartStore.class), 100);
+    }
+
+    @Test
+    void loadsOnceThenAppliesDeltas() {
+        when(jdbcTemplate.queryForMap(anyString(), eq(USER_ID)))
+                .thenReturn(Map.of("item_count", 2L, "total_price", new BigDecimal("30000.00")));
+
+        CartSummaryResponse first = cache.get(USER_ID);
+        assertEquals(2, first.getItemCount());
+
+        // Line baru 3 x 5000, lalu line lama 10000 dihapus
+        cache.lineChanged(USER_ID, cache.begin(USER_ID), 0, 3, new BigDecimal("5000.00"));
+        cache.lineChanged(USER_ID, cache.begin(USER_ID), 1, 0, new BigDecimal("10000.00"));
+
+        CartSummaryResponse summary = cache.get(USER_ID);
+        assertEquals(2, summary.getItemCount());
+        assertEquals(0, new BigDecimal("35000").compareTo(summary.getTotalPrice()));
+        assertTrue(summary.getVersion() > first.getVersion());
+        verify(jdbcTemplate, times(1)).queryForMap(anyString(), eq(USER_ID));
+    }
+
+    @Test
+    void loadRacingWithMutationIsNotCached() {
+        long[] token = new long[1];
+        when(jdbcTemplate.queryForMap(anyString(), eq(USER_ID))).thenAnswer(invocation -> {
+            // Mutasi dimulai saat query load sedang berjalan
+            token[0] = cache.begin(USER_ID);
+            return Map.of("item_count", 1L, "total_price", new BigDecimal("10000.00"));
+        });
+
+        cache.get(USER_ID);
+        cache.lineChanged(USER_ID, token[0], 0, 1, new BigDecimal("2000.00"));
+        cache.get(USER_ID);
+
+        verify(jdbcTemplate, times(2)).queryForMap(anyString(), eq(USER_ID));
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        when(jdbcTemplate.queryForMap(anyString(), eq(USER_ID)))
+                .thenReturn(Map.of("item_count", 1L, "total_price", new BigDecimal("10000.00")))
+                .thenReturn(Map.of("item_count", 0L, "total_price", BigDecimal.ZERO));
+
+        cache.get(USER_ID);
+        cache.invalidate(USER_ID, cache.begin(USER_ID));
+
+        assertEquals(0, cache.get(USER_ID).getItemCount());
+    }
+}
@@ -0,0 +1,144 @@
+package ogami_api.ogani_website.order.service;
+
+import jakarta.persistence.EntityManager;
+import ogami_api.ogani_website.cart.model.Cart;
+import ogami_api.ogani_website.order.model.Order;
+import ogami_api.ogani_website.product.model.Product;
+import ogami_api.ogani_website.user.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Jumlah statement JDBC untuk checkout harus konstan, tidak tergantung jumlah item di cart.
+ * Dihitung di level DataSource, karena statistik Hibernate tidak melihat batch JdbcTemplate
+ * dan SELECT ... FOR UPDATE dari ProductService.
+ */
+@SpringBootTest
+@Transactional
+class CheckoutStatementCountTest {
+
+    private static final AtomicInteger EXECUTED = new AtomicInteger();
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void checkoutRunsFixedStatementsRegardlessOfCartSize() {
+        int oneLine = checkoutStatements(1);
+        int twentyLines = checkoutStatements(20);
+
+        assertEquals(oneLine, twentyLines);
+    }
+
+    /**
+     * Siapkan user dengan cart berisi sejumlah line, lalu hitung statement selama checkout.
+     */
+    private int checkoutStatements(int lines) {
+        User user = User.builder()
+                .username("checkout-count")
+                .email("checkout-count-" + System.nanoTime() + "@test.local")
+                .password("secret")
+                .build();
+        entityManager.persist(user);
+
+        for (int i = 0; i < lines; i++) {
+            Product product = Product.builder()
+                    .productName("Product " + i)
+                    .price(BigDecimal.valueOf(1000 + i))
+                    .stock(100)
+                    .build();
+            entityManager.persist(product);
+            entityManager.persist(Cart.builder().user(user).product(product).quantity(2).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        EXECUTED.set(0);
+        // Invoice code eksplisit, jadi generator (yang bisa reserve block ke DB) tidak ikut terhitung
+        Order order = orderService.createOrderFromCart(user.getUserId(), "SC-" + System.nanoTime(),
+                "Receiver", "0812", "Address");
+        int executed = EXECUTED.get();
+
+        assertEquals(lines, order.getOrderDetails().size());
+        return executed;
+    }
+
+    @TestConfiguration
+    static class StatementCounterConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Hitung setiap execute / executeQuery / executeUpdate / executeBatch pada statement dari DataSource.
+     */
+    private static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private static Connection wrap(Connection connection) {
+            return (Connection) proxy(Connection.class, connection, false);
+        }
+
+        /**
+         * Connection: statement yang dibuat ikut di-proxy. Statement: method execute* dihitung.
+         */
+        private static Object proxy(Class<?> type, Object target, boolean count) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (count && method.getName().startsWith("execute")) {
+                    EXECUTED.incrementAndGet();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (!count && result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    return proxy(method.getReturnType(), result, true);
+                }
+                return result;
+            });
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ogami_api.ogani_website.order.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput generator invoice id dengan banyak thread. Tidak ikut run default,
+ * jalankan dengan {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class InvoiceCodeGeneratorBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 2_000_000;
+    private static final long MIN_IDS_PER_SECOND = 2_000_000;
+
+    @Test
+    void generatesIdsAboveMinimumRate() throws Exception {
+        InvoiceCodeGenerator generator = new InvoiceCodeGenerator(7);
+        // Warm-up supaya nextId sudah di-JIT sebelum diukur
+        run(generator, IDS_PER_THREAD / 10);
+
+        long elapsed = run(generator, IDS_PER_THREAD);
+        double idsPerSecond = THREADS * (double) IDS_PER_THREAD / elapsed * TimeUnit.SECONDS.toNanos(1);
+
+        System.out.printf("InvoiceCodeGenerator: %,.0f ids/s (%d threads)%n", idsPerSecond, THREADS);
+        assertTrue(idsPerSecond >= MIN_IDS_PER_SECOND,
+                String.format("%,.0f ids/s di bawah minimum %,d", idsPerSecond, MIN_IDS_PER_SECOND));
+    }
+
+    /**
+     * Jalankan nextId bersamaan di semua thread, hasilnya durasi dalam nanodetik.
+     */
+    private static long run(InvoiceCodeGenerator generator, int idsPerThread) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                start.await();
+                long sink = 0;
+                for (int i = 0; i < idsPerThread; i++) {
+                    sink ^= generator.nextId();
+                }
+                return sink;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        return System.nanoTime() - begin;
+    }
+}
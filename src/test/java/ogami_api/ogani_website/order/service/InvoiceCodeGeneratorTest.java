@@ -0,0 +1,77 @@
+package ogami_api.ogani_website.order.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvoiceCodeGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 500_000;
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        InvoiceCodeGenerator generator = new InvoiceCodeGenerator(7);
+        long[][] ids = new long[THREADS][IDS_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            long[] out = ids[t];
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < out.length; i++) {
+                    out[i] = generator.nextId();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        long[] all = Arrays.stream(ids).flatMapToLong(Arrays::stream).sorted().toArray();
+        for (int i = 1; i < all.length; i++) {
+            assertTrue(all[i] > all[i - 1], "duplicate id " + all[i]);
+        }
+    }
+
+    @Test
+    void idsAreMonotonicPerThreadAndCarryNodeId() {
+        InvoiceCodeGenerator generator = new InvoiceCodeGenerator(InvoiceCodeGenerator.MAX_NODE_ID);
+        long previous = 0;
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertEquals(InvoiceCodeGenerator.MAX_NODE_ID,
+                    (id >>> InvoiceCodeGenerator.SEQUENCE_BITS) & InvoiceCodeGenerator.MAX_NODE_ID);
+            previous = id;
+        }
+    }
+
+    @Test
+    void codesAreFixedWidthAndSortable() {
+        InvoiceCodeGenerator generator = new InvoiceCodeGenerator(1);
+        String previous = generator.nextCode();
+        for (int i = 0; i < 10_000; i++) {
+            String code = generator.nextCode();
+            assertTrue(code.matches("INV-[0-9A-F]{16}"), code);
+            assertTrue(code.compareTo(previous) > 0);
+            previous = code;
+        }
+    }
+
+    @Test
+    void rejectsInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new InvoiceCodeGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new InvoiceCodeGenerator(InvoiceCodeGenerator.MAX_NODE_ID + 1));
+    }
+}
@@ -0,0 +1,92 @@
+package ogami_api.ogani_website.order.service;
+
+import ogami_api.ogani_website.common.CursorCodec;
+import ogami_api.ogani_website.order.dto.OrderSearchCriteria;
+import ogami_api.ogani_website.order.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Guard index untuk admin order search: setiap kombinasi filter harus jalan lewat index
+ * (bukan full scan) dan urutan diambil dari index (tanpa filesort).
+ * Butuh migration_admin_order_search.sql sudah dijalankan.
+ */
+@SpringBootTest
+@Transactional
+class OrderSearchServiceExplainTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+    private static final int PAGE = 21;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Cukup banyak row supaya optimizer tidak memilih full scan karena tabel kecil
+        OrderStatus[] statuses = OrderStatus.values();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rows.add(new Object[]{"EXPLAIN-" + i, statuses[i % statuses.length].name(), NOW.minusMinutes(i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (invoice_code, order_status, order_time) VALUES (?, ?, ?)", rows);
+    }
+
+    @Test
+    void statusFilterUsesIndex() {
+        assertIndexed(OrderSearchCriteria.builder().status(OrderStatus.PENDING).build(), null);
+    }
+
+    @Test
+    void statusAndDateRangeUsesIndex() {
+        assertIndexed(OrderSearchCriteria.builder()
+                .status(OrderStatus.PENDING)
+                .from(NOW.minusDays(1))
+                .to(NOW)
+                .build(), null);
+    }
+
+    @Test
+    void statusNextPageUsesIndex() {
+        assertIndexed(OrderSearchCriteria.builder().status(OrderStatus.PENDING).build(),
+                new CursorCodec.TimeAndId(NOW.minusMinutes(100), 100));
+    }
+
+    @Test
+    void dateRangeOnlyUsesIndex() {
+        assertIndexed(OrderSearchCriteria.builder().from(NOW.minusDays(1)).to(NOW).build(), null);
+    }
+
+    @Test
+    void userFilterUsesIndex() {
+        assertIndexed(OrderSearchCriteria.builder().userId(1).build(), null);
+    }
+
+    @Test
+    void noFilterUsesIndex() {
+        assertIndexed(new OrderSearchCriteria(), null);
+    }
+
+    private void assertIndexed(OrderSearchCriteria criteria, CursorCodec.TimeAndId after) {
+        OrderSearchService.SqlQuery query = OrderSearchService.buildQuery(criteria, after, PAGE);
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + query.sql(), query.args());
+
+        for (Map<String, Object> row : plan) {
+            assertNotEquals("ALL", row.get("type"), () -> "Full scan: " + plan);
+            String extra = String.valueOf(row.get("Extra"));
+            assertFalse(extra.contains("Using filesort"), () -> "Filesort: " + plan);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ogami_api.ogani_website.order.service;
+
+import jakarta.persistence.EntityManager;
+import ogami_api.ogani_website.order.model.Order;
+import ogami_api.ogani_website.order.model.OrderDetail;
+import ogami_api.ogani_website.product.model.Product;
+import ogami_api.ogani_website.user.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Jumlah statement untuk load order history harus konstan, tidak tergantung jumlah order / item.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class OrderServiceQueryCountTest {
+
+    private static final int ORDERS = 12;
+    private static final int ITEMS_PER_ORDER = 5;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Integer userId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .username("query-count")
+                .email("query-count-" + System.nanoTime() + "@test.local")
+                .password("secret")
+                .build();
+        entityManager.persist(user);
+        userId = user.getUserId();
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            Product product = Product.builder()
+                    .productName("Product " + i)
+                    .price(BigDecimal.valueOf(1000 + i))
+                    .stock(100)
+                    .build();
+            entityManager.persist(product);
+            products.add(product);
+        }
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .user(user)
+                    .invoiceCode("QC-" + System.nanoTime() + "-" + i)
+                    .totalPrice(BigDecimal.ZERO)
+                    .orderDetails(new ArrayList<>())
+                    .build();
+            for (Product product : products) {
+                order.getOrderDetails().add(OrderDetail.builder()
+                        .order(order)
+                        .product(product)
+                        .productName(product.getProductName())
+                        .productImage(product.getProductImage())
+                        .quantity(1)
+                        .priceAtOrder(product.getPrice())
+                        .subtotal(product.getPrice())
+                        .build());
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void orderListLoadsDetailsInFixedStatements() {
+        List<Order> orders = orderService.getOrdersByUserId(userId);
+        assertEquals(ORDERS * ITEMS_PER_ORDER, touchDetails(orders));
+
+        // orders + details
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void orderPageLoadsDetailsInFixedStatements() {
+        Page<Order> page = orderService.getOrdersByUserId(userId, PageRequest.of(0, 10));
+        assertEquals(10 * ITEMS_PER_ORDER, touchDetails(page.getContent()));
+
+        // orders page + count + details
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void orderDetailLoadsInOneStatement() {
+        Integer orderId = orderService.getOrdersByUserId(userId).get(0).getOrderId();
+        entityManager.clear();
+        statistics.clear();
+
+        assertEquals(ITEMS_PER_ORDER, touchDetails(List.of(orderService.getOrderById(orderId))));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void orderHistoryDoesNotReadProducts() {
+        touchDetails(orderService.getOrdersByUserId(userId));
+
+        assertEquals(0, statistics.getEntityStatistics(Product.class.getName()).getLoadCount());
+    }
+
+    /**
+     * Akses field yang dipakai OrderController.toOrderResponse.
+     */
+    private static int touchDetails(List<Order> orders) {
+        int items = 0;
+        for (Order order : orders) {
+            for (OrderDetail detail : order.getOrderDetails()) {
+                assertNotNull(detail.getProductId());
+                assertTrue(detail.getProductName().startsWith("Product "));
+                items++;
+            }
+        }
+        return items;
+    }
+}